@@ -1,6 +1,7 @@
 package com.spikes2212.command;
 
 import com.spikes2212.dashboard.Namespace;
+import com.spikes2212.dashboard.NamespaceRegistry;
 import com.spikes2212.dashboard.RootNamespace;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Subsystem;
@@ -29,11 +30,14 @@ public abstract class DashboardedSubsystem extends SubsystemBase {
     }
 
     /**
-     * Updates the {@link Namespace}. Should be called in the {@code robotPeriodic()} method in {@code Robot}.
+     * Updates the {@link Namespace}, unless the {@link NamespaceRegistry} updates all namespaces together. Should be
+     * called in the {@code robotPeriodic()} method in {@code Robot}.
      */
     @Override
     public void periodic() {
-        namespace.update();
+        if (!NamespaceRegistry.getInstance().isBatchedUpdates()) {
+            namespace.update();
+        }
     }
 
     public abstract void configureDashboard();
@@ -0,0 +1,128 @@
+package com.spikes2212.command.drivetrains.commands;
+
+import com.spikes2212.command.drivetrains.TankDrivetrain;
+import com.spikes2212.control.FeedForwardCharacterizer;
+import com.spikes2212.control.FeedForwardController;
+import com.spikes2212.control.FeedForwardSettings;
+import com.spikes2212.dashboard.Namespace;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.util.function.Supplier;
+
+/**
+ * This command fits the feed forward gains of both sides of a {@link TankDrivetrain} by driving it straight with a
+ * {@link FeedForwardCharacterizer} for each side, and writes them into feed forward settings that were added using
+ * {@link Namespace#addFeedForwardNamespace}, or using {@link Namespace#addFeedForwardArray} after
+ * {@link #withArraySettings()}. The gains are fitted for
+ * {@link FeedForwardController.ControlMode#LINEAR_VELOCITY}.
+ *
+ * @see FeedForwardCharacterizer
+ */
+public class CharacterizeTankDrivetrainFeedForward extends Command {
+
+    protected final TankDrivetrain drivetrain;
+    protected final Supplier<Double> leftVelocity;
+    protected final Supplier<Double> rightVelocity;
+    protected final FeedForwardCharacterizer leftCharacterizer;
+    protected final FeedForwardCharacterizer rightCharacterizer;
+
+    /**
+     * The namespace the feed forward settings were added to.
+     */
+    protected final Namespace namespace;
+
+    /**
+     * The name that was given to the left side's feed forward settings.
+     */
+    protected final String leftName;
+
+    /**
+     * The name that was given to the right side's feed forward settings.
+     */
+    protected final String rightName;
+
+    /**
+     * Whether the feed forward settings were added to the {@link #namespace} as single arrays.
+     */
+    protected boolean arraySettings;
+
+    /**
+     * The output both sides were driven with since the last iteration.
+     */
+    private double output;
+
+    /**
+     * Constructs a new {@link CharacterizeTankDrivetrainFeedForward} command.
+     *
+     * @param drivetrain        the drivetrain this command operates on
+     * @param leftVelocity      the Double {@link Supplier} supplying the current velocity of the left side
+     * @param rightVelocity     the Double {@link Supplier} supplying the current velocity of the right side
+     * @param velocityThreshold the smallest velocity a sample is used at
+     * @param namespace         the namespace the feed forward settings were added to
+     * @param leftName          the name that was given to the left side's feed forward settings
+     * @param rightName         the name that was given to the right side's feed forward settings
+     */
+    public CharacterizeTankDrivetrainFeedForward(TankDrivetrain drivetrain, Supplier<Double> leftVelocity,
+                                                 Supplier<Double> rightVelocity, double velocityThreshold,
+                                                 Namespace namespace, String leftName, String rightName) {
+        addRequirements(drivetrain);
+        this.drivetrain = drivetrain;
+        this.leftVelocity = leftVelocity;
+        this.rightVelocity = rightVelocity;
+        this.leftCharacterizer = new FeedForwardCharacterizer(FeedForwardController.ControlMode.LINEAR_VELOCITY,
+                velocityThreshold);
+        this.rightCharacterizer = new FeedForwardCharacterizer(FeedForwardController.ControlMode.LINEAR_VELOCITY,
+                velocityThreshold);
+        this.namespace = namespace;
+        this.leftName = leftName;
+        this.rightName = rightName;
+    }
+
+    /**
+     * Makes this command write the gains into settings that were added using {@link Namespace#addFeedForwardArray}.
+     *
+     * @return this command
+     */
+    public CharacterizeTankDrivetrainFeedForward withArraySettings() {
+        this.arraySettings = true;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        leftCharacterizer.reset();
+        rightCharacterizer.reset();
+        output = 0;
+    }
+
+    @Override
+    public void execute() {
+        double time = Timer.getFPGATimestamp();
+        leftCharacterizer.update(0, leftVelocity.get(), output, time);
+        output = rightCharacterizer.update(0, rightVelocity.get(), output, time);
+        drivetrain.tankDrive(output, output);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return leftCharacterizer.isFinished() && rightCharacterizer.isFinished();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        drivetrain.stop();
+        if (!interrupted) {
+            if (leftCharacterizer.getSampleCount() > 0) writeResult(leftName, leftCharacterizer.getResult());
+            if (rightCharacterizer.getSampleCount() > 0) writeResult(rightName, rightCharacterizer.getResult());
+        }
+    }
+
+    private void writeResult(String name, FeedForwardSettings result) {
+        if (arraySettings) {
+            namespace.setFeedForwardArray(name, result);
+        } else {
+            namespace.setFeedForwardNamespace(name, result);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.spikes2212.command.drivetrains.TankDrivetrain;
 import com.spikes2212.control.FeedForwardController;
 import com.spikes2212.control.FeedForwardSettings;
 import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.SnapshotTracker;
+import com.spikes2212.control.SpikesPIDController;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -43,6 +45,11 @@ public class DriveArcadeWithPID extends Command {
      */
     protected final FeedForwardController feedForwardController;
 
+    /**
+     * A {@link SpikesPIDController} used instead of {@link #pidController}, or {@code null} to use the latter.
+     */
+    protected SpikesPIDController spikesPIDController;
+
     /**
      * The angle of the drivetrain.
      */
@@ -68,6 +75,16 @@ public class DriveArcadeWithPID extends Command {
      */
     private double lastTimeNotOnTarget;
 
+    /**
+     * Tracks the PID settings that were last applied to the controller.
+     */
+    private final SnapshotTracker<PIDSettings.Snapshot> appliedPIDSettings = new SnapshotTracker<>();
+
+    /**
+     * Tracks the feed forward settings that were last applied to the controller.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> appliedFeedForwardSettings = new SnapshotTracker<>();
+
     public DriveArcadeWithPID(TankDrivetrain drivetrain, Supplier<Double> source, Supplier<Double> setpoint,
                               Supplier<Double> acceleration, Supplier<Double> moveValue, PIDSettings pidSettings,
                               FeedForwardSettings feedForwardSettings) {
@@ -112,25 +129,67 @@ public class DriveArcadeWithPID extends Command {
         this(drivetrain, source, () -> setpoint, () -> moveValue, pidSettings);
     }
 
-    @Override
-    public void execute() {
-        pidController.setTolerance(pidSettings.getTolerance());
-        pidController.setPID(pidSettings.getkP(), pidSettings.getkI(), pidSettings.getkD());
-        pidController.setIZone(pidSettings.getIZone());
+    /**
+     * Makes this command use the given {@link SpikesPIDController}, which measures the real time between iterations,
+     * instead of a {@link PIDController}. The PID settings are applied to it like they would be to the latter.
+     *
+     * @param controller the controller to use
+     * @return this command
+     */
+    public DriveArcadeWithPID withSpikesPIDController(SpikesPIDController controller) {
+        this.spikesPIDController = controller;
+        appliedPIDSettings.reset();
+        return this;
+    }
+
+    /**
+     * Applies the PID and feed forward settings to the controllers, only if they changed since they were last
+     * applied.
+     */
+    protected void applySettings() {
+        PIDSettings.Snapshot pid = pidSettings.getSnapshot();
+        if (appliedPIDSettings.changed(pid)) {
+            if (spikesPIDController != null) {
+                spikesPIDController.setSettings(pid);
+            } else {
+                pidController.setTolerance(pid.getTolerance());
+                pidController.setPID(pid.getkP(), pid.getkI(), pid.getkD());
+                pidController.setIZone(pid.getIZone());
+            }
+        }
+        FeedForwardSettings.Snapshot feedForward = feedForwardSettings.getSnapshot();
+        if (appliedFeedForwardSettings.changed(feedForward)) {
+            feedForwardController.setGains(feedForward);
+        }
+    }
 
-        feedForwardController.setGains(feedForwardSettings);
+    @Override
+    public void initialize() {
+        if (spikesPIDController != null) spikesPIDController.reset();
+    }
 
-        drivetrain.arcadeDrive(moveValue.get(), pidController.calculate(source.get(), setpoint.get()) +
-                feedForwardController.calculate(source.get(), setpoint.get(), acceleration.get()));
+    @Override
+    public void execute() {
+        applySettings();
+
+        double currentSource = source.get();
+        double currentSetpoint = setpoint.get();
+        double pidValue = spikesPIDController != null ?
+                spikesPIDController.calculate(currentSource, currentSetpoint) :
+                pidController.calculate(currentSource, currentSetpoint);
+        drivetrain.arcadeDrive(moveValue.get(), pidValue +
+                feedForwardController.calculate(currentSource, currentSetpoint, acceleration.get()));
     }
 
     @Override
     public boolean isFinished() {
-        if (!pidController.atSetpoint()) {
+        boolean atSetpoint = spikesPIDController != null ? spikesPIDController.atSetpoint() :
+                pidController.atSetpoint();
+        if (!atSetpoint) {
             lastTimeNotOnTarget = Timer.getFPGATimestamp();
         }
 
-        return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= pidSettings.getWaitTime();
+        return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= pidSettings.getSnapshot().getWaitTime();
     }
 
     @Override
@@ -4,6 +4,8 @@ import com.spikes2212.command.drivetrains.TankDrivetrain;
 import com.spikes2212.control.FeedForwardController;
 import com.spikes2212.control.FeedForwardSettings;
 import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.SnapshotTracker;
+import com.spikes2212.control.SpikesPIDController;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -93,6 +95,16 @@ public class DriveTankWithPID extends Command {
      */
     protected final FeedForwardController rightFeedForwardController;
 
+    /**
+     * A {@link SpikesPIDController} used instead of {@link #leftPIDController}, or {@code null} to use the latter.
+     */
+    protected SpikesPIDController leftSpikesPIDController;
+
+    /**
+     * A {@link SpikesPIDController} used instead of {@link #rightPIDController}, or {@code null} to use the latter.
+     */
+    protected SpikesPIDController rightSpikesPIDController;
+
     /**
      * The last time the left side of the drivetrain was not within its target zone.
      */
@@ -103,6 +115,28 @@ public class DriveTankWithPID extends Command {
      */
     private double rightLastTimeNotOnTarget;
 
+    /**
+     * Tracks the PID settings that were last applied to the left controller.
+     */
+    private final SnapshotTracker<PIDSettings.Snapshot> appliedLeftPIDSettings = new SnapshotTracker<>();
+
+    /**
+     * Tracks the PID settings that were last applied to the right controller.
+     */
+    private final SnapshotTracker<PIDSettings.Snapshot> appliedRightPIDSettings = new SnapshotTracker<>();
+
+    /**
+     * Tracks the feed forward settings that were last applied to the left controller.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> appliedLeftFeedForwardSettings =
+            new SnapshotTracker<>();
+
+    /**
+     * Tracks the feed forward settings that were last applied to the right controller.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> appliedRightFeedForwardSettings =
+            new SnapshotTracker<>();
+
     public DriveTankWithPID(TankDrivetrain drivetrain, PIDSettings leftPIDSettings, PIDSettings rightPIDSettings,
                             Supplier<Double> leftSetpoint, Supplier<Double> rightSetpoint, Supplier<Double> leftSource,
                             Supplier<Double> rightSource, Supplier<Double> leftAcceleration,
@@ -177,38 +211,103 @@ public class DriveTankWithPID extends Command {
                 rightFeedForwardSettings);
     }
 
+    /**
+     * Makes this command use the given {@link SpikesPIDController}s, which measure the real time between iterations,
+     * instead of {@link PIDController}s. The PID settings are applied to them like they would be to the latter.
+     *
+     * @param leftController  the controller to use for the left side
+     * @param rightController the controller to use for the right side
+     * @return this command
+     */
+    public DriveTankWithPID withSpikesPIDControllers(SpikesPIDController leftController,
+                                                     SpikesPIDController rightController) {
+        this.leftSpikesPIDController = leftController;
+        this.rightSpikesPIDController = rightController;
+        appliedLeftPIDSettings.reset();
+        appliedRightPIDSettings.reset();
+        return this;
+    }
+
+    /**
+     * Applies the PID and feed forward settings of both sides to their controllers, only if they changed since they
+     * were last applied.
+     */
+    protected void applySettings() {
+        PIDSettings.Snapshot leftPID = leftPIDSettings.getSnapshot();
+        if (appliedLeftPIDSettings.changed(leftPID)) {
+            if (leftSpikesPIDController != null) {
+                leftSpikesPIDController.setSettings(leftPID);
+            } else {
+                leftPIDController.setTolerance(leftPID.getTolerance());
+                leftPIDController.setPID(leftPID.getkP(), leftPID.getkI(), leftPID.getkD());
+                leftPIDController.setIZone(leftPID.getIZone());
+            }
+        }
+        PIDSettings.Snapshot rightPID = rightPIDSettings.getSnapshot();
+        if (appliedRightPIDSettings.changed(rightPID)) {
+            if (rightSpikesPIDController != null) {
+                rightSpikesPIDController.setSettings(rightPID);
+            } else {
+                rightPIDController.setTolerance(rightPID.getTolerance());
+                rightPIDController.setPID(rightPID.getkP(), rightPID.getkI(), rightPID.getkD());
+                rightPIDController.setIZone(rightPID.getIZone());
+            }
+        }
+        FeedForwardSettings.Snapshot leftFeedForward = leftFeedForwardSettings.getSnapshot();
+        if (appliedLeftFeedForwardSettings.changed(leftFeedForward)) {
+            leftFeedForwardController.setGains(leftFeedForward);
+        }
+        FeedForwardSettings.Snapshot rightFeedForward = rightFeedForwardSettings.getSnapshot();
+        if (appliedRightFeedForwardSettings.changed(rightFeedForward)) {
+            rightFeedForwardController.setGains(rightFeedForward);
+        }
+    }
+
+    @Override
+    public void initialize() {
+        if (leftSpikesPIDController != null) leftSpikesPIDController.reset();
+        if (rightSpikesPIDController != null) rightSpikesPIDController.reset();
+    }
+
     @Override
     public void execute() {
-        leftPIDController.setSetpoint(leftSetpoint.get());
-        rightPIDController.setSetpoint(rightSetpoint.get());
-        leftPIDController.setTolerance(leftPIDSettings.getTolerance());
-        rightPIDController.setTolerance(rightPIDSettings.getTolerance());
-        leftPIDController.setPID(leftPIDSettings.getkP(), leftPIDSettings.getkI(), leftPIDSettings.getkD());
-        rightPIDController.setPID(rightPIDSettings.getkP(), rightPIDSettings.getkI(), rightPIDSettings.getkD());
-        leftPIDController.setIZone(leftPIDSettings.getIZone());
-        rightPIDController.setIZone(rightPIDSettings.getIZone());
-        leftFeedForwardController.setGains(leftFeedForwardSettings);
-        rightFeedForwardController.setGains(rightFeedForwardSettings);
-        drivetrain.tankDrive((leftPIDController.calculate(leftSource.get()) +
-                        leftFeedForwardController.calculate(leftSource.get(), leftSetpoint.get(),
+        double currentLeftSetpoint = leftSetpoint.get();
+        double currentRightSetpoint = rightSetpoint.get();
+        double currentLeftSource = leftSource.get();
+        double currentRightSource = rightSource.get();
+        leftPIDController.setSetpoint(currentLeftSetpoint);
+        rightPIDController.setSetpoint(currentRightSetpoint);
+        applySettings();
+        double leftPIDValue = leftSpikesPIDController != null ?
+                leftSpikesPIDController.calculate(currentLeftSource, currentLeftSetpoint) :
+                leftPIDController.calculate(currentLeftSource);
+        double rightPIDValue = rightSpikesPIDController != null ?
+                rightSpikesPIDController.calculate(currentRightSource, currentRightSetpoint) :
+                rightPIDController.calculate(currentRightSource);
+        drivetrain.tankDrive((leftPIDValue +
+                        leftFeedForwardController.calculate(currentLeftSource, currentLeftSetpoint,
                                 leftAcceleration.get())),
-                rightPIDController.calculate(rightSource.get()) +
-                        rightFeedForwardController.calculate(rightSource.get(), rightSetpoint.get(),
+                rightPIDValue +
+                        rightFeedForwardController.calculate(currentRightSource, currentRightSetpoint,
                                 rightAcceleration.get()));
     }
 
     @Override
     public boolean isFinished() {
-        if (!leftPIDController.atSetpoint()) {
+        boolean leftAtSetpoint = leftSpikesPIDController != null ? leftSpikesPIDController.atSetpoint() :
+                leftPIDController.atSetpoint();
+        boolean rightAtSetpoint = rightSpikesPIDController != null ? rightSpikesPIDController.atSetpoint() :
+                rightPIDController.atSetpoint();
+        if (!leftAtSetpoint) {
             leftLastTimeNotOnTarget = Timer.getFPGATimestamp();
         }
 
-        if (!rightPIDController.atSetpoint()) {
+        if (!rightAtSetpoint) {
             rightLastTimeNotOnTarget = Timer.getFPGATimestamp();
         }
 
-        return Timer.getFPGATimestamp() - leftLastTimeNotOnTarget >= leftPIDSettings.getWaitTime()
-                && Timer.getFPGATimestamp() - rightLastTimeNotOnTarget >= rightPIDSettings.getWaitTime();
+        return Timer.getFPGATimestamp() - leftLastTimeNotOnTarget >= leftPIDSettings.getSnapshot().getWaitTime()
+                && Timer.getFPGATimestamp() - rightLastTimeNotOnTarget >= rightPIDSettings.getSnapshot().getWaitTime();
     }
 
     @Override
@@ -0,0 +1,124 @@
+package com.spikes2212.command.drivetrains.commands;
+
+import com.spikes2212.command.drivetrains.TankDrivetrain;
+import com.spikes2212.control.StateSpaceController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.util.function.Supplier;
+
+/**
+ * A command that moves a {@link TankDrivetrain} using two {@link StateSpaceController}s, one for each side, until
+ * both have been within their controller's tolerance for the wait time.
+ *
+ * @see TankDrivetrain
+ * @see StateSpaceController
+ */
+public class DriveTankWithStateSpace extends Command {
+
+    /**
+     * The drivetrain this command operates on.
+     */
+    protected final TankDrivetrain drivetrain;
+
+    /**
+     * The setpoint the left side of the drivetrain should reach.
+     */
+    protected final Supplier<Double> leftSetpoint;
+
+    /**
+     * The setpoint the right side of the drivetrain should reach.
+     */
+    protected final Supplier<Double> rightSetpoint;
+
+    /**
+     * The current state of the left side of the drivetrain.
+     */
+    protected final Supplier<Double> leftSource;
+
+    /**
+     * The current state of the right side of the drivetrain.
+     */
+    protected final Supplier<Double> rightSource;
+
+    /**
+     * The controller of the left side of the drivetrain.
+     */
+    protected final StateSpaceController leftController;
+
+    /**
+     * The controller of the right side of the drivetrain.
+     */
+    protected final StateSpaceController rightController;
+
+    /**
+     * The time both sides are required to stay on target, in seconds.
+     */
+    protected final double waitTime;
+
+    /**
+     * The last time the left side of the drivetrain was not within its target zone.
+     */
+    private double leftLastTimeNotOnTarget;
+
+    /**
+     * The last time the right side of the drivetrain was not within its target zone.
+     */
+    private double rightLastTimeNotOnTarget;
+
+    public DriveTankWithStateSpace(TankDrivetrain drivetrain, Supplier<Double> leftSetpoint,
+                                   Supplier<Double> rightSetpoint, Supplier<Double> leftSource,
+                                   Supplier<Double> rightSource, StateSpaceController leftController,
+                                   StateSpaceController rightController, double waitTime) {
+        addRequirements(drivetrain);
+        this.drivetrain = drivetrain;
+        this.leftSetpoint = leftSetpoint;
+        this.rightSetpoint = rightSetpoint;
+        this.leftSource = leftSource;
+        this.rightSource = rightSource;
+        this.leftController = leftController;
+        this.rightController = rightController;
+        this.waitTime = waitTime;
+    }
+
+    public DriveTankWithStateSpace(TankDrivetrain drivetrain, double leftSetpoint, double rightSetpoint,
+                                   Supplier<Double> leftSource, Supplier<Double> rightSource,
+                                   StateSpaceController leftController, StateSpaceController rightController,
+                                   double waitTime) {
+        this(drivetrain, () -> leftSetpoint, () -> rightSetpoint, leftSource, rightSource, leftController,
+                rightController, waitTime);
+    }
+
+    @Override
+    public void initialize() {
+        leftController.reset(leftSource.get());
+        rightController.reset(rightSource.get());
+        leftLastTimeNotOnTarget = Timer.getFPGATimestamp();
+        rightLastTimeNotOnTarget = Timer.getFPGATimestamp();
+    }
+
+    @Override
+    public void execute() {
+        drivetrain.tankDrive(leftController.calculate(leftSource.get(), leftSetpoint.get()),
+                rightController.calculate(rightSource.get(), rightSetpoint.get()));
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (!leftController.atSetpoint()) {
+            leftLastTimeNotOnTarget = Timer.getFPGATimestamp();
+        }
+
+        if (!rightController.atSetpoint()) {
+            rightLastTimeNotOnTarget = Timer.getFPGATimestamp();
+        }
+
+        return Timer.getFPGATimestamp() - leftLastTimeNotOnTarget >= waitTime
+                && Timer.getFPGATimestamp() - rightLastTimeNotOnTarget >= waitTime;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        drivetrain.stop();
+    }
+}
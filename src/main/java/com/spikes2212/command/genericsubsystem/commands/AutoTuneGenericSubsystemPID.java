@@ -0,0 +1,140 @@
+package com.spikes2212.command.genericsubsystem.commands;
+
+import com.spikes2212.command.genericsubsystem.GenericSubsystem;
+import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.RelayAutoTuner;
+import com.spikes2212.dashboard.Namespace;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.util.function.Supplier;
+
+/**
+ * This command finds PID gains for a {@link GenericSubsystem} by making it oscillate around a setpoint with a
+ * {@link RelayAutoTuner}. Once enough cycles were recorded, the gains calculated by the chosen
+ * {@link RelayAutoTuner.TuningRule} replace the gains of the given {@link PIDSettings}, keeping their i zone,
+ * tolerance and wait time. If a {@link Namespace} is given, the gains are written into the settings that were added
+ * to it using {@link Namespace#addPIDNamespace}, or using {@link Namespace#addPIDArray} after
+ * {@link #withArraySettings()}; otherwise the settings are changed directly.
+ *
+ * @see RelayAutoTuner
+ */
+public class AutoTuneGenericSubsystemPID extends Command {
+
+    protected final GenericSubsystem subsystem;
+    protected final Supplier<Double> source;
+    protected final RelayAutoTuner tuner;
+    protected final RelayAutoTuner.TuningRule tuningRule;
+
+    /**
+     * The settings whose gains are replaced.
+     */
+    protected final PIDSettings pidSettings;
+
+    /**
+     * The namespace the settings were added to, or {@code null} to change the settings directly.
+     */
+    protected final Namespace namespace;
+
+    /**
+     * The name that was given to the settings in the {@link #namespace}.
+     */
+    protected final String name;
+
+    /**
+     * Whether the settings were added to the {@link #namespace} as a single array.
+     */
+    protected boolean arraySettings;
+
+    /**
+     * Constructs a new {@link AutoTuneGenericSubsystemPID} command which writes the gains into a {@link Namespace}.
+     *
+     * @param subsystem   the subsystem this command operates on
+     * @param source      the Double {@link Supplier} supplying the current state
+     * @param tuner       the tuner which moves the subsystem and calculates the gains
+     * @param tuningRule  the rule to calculate the gains with
+     * @param pidSettings the settings whose gains are replaced
+     * @param namespace   the namespace the settings were added to
+     * @param name        the name that was given to the settings
+     */
+    public AutoTuneGenericSubsystemPID(GenericSubsystem subsystem, Supplier<Double> source, RelayAutoTuner tuner,
+                                       RelayAutoTuner.TuningRule tuningRule, PIDSettings pidSettings,
+                                       Namespace namespace, String name) {
+        addRequirements(subsystem);
+        this.subsystem = subsystem;
+        this.source = source;
+        this.tuner = tuner;
+        this.tuningRule = tuningRule;
+        this.pidSettings = pidSettings;
+        this.namespace = namespace;
+        this.name = name;
+    }
+
+    /**
+     * Constructs a new {@link AutoTuneGenericSubsystemPID} command which changes the given settings directly.
+     *
+     * @param subsystem   the subsystem this command operates on
+     * @param source      the Double {@link Supplier} supplying the current state
+     * @param tuner       the tuner which moves the subsystem and calculates the gains
+     * @param tuningRule  the rule to calculate the gains with
+     * @param pidSettings the settings whose gains are replaced
+     */
+    public AutoTuneGenericSubsystemPID(GenericSubsystem subsystem, Supplier<Double> source, RelayAutoTuner tuner,
+                                       RelayAutoTuner.TuningRule tuningRule, PIDSettings pidSettings) {
+        this(subsystem, source, tuner, tuningRule, pidSettings, null, null);
+    }
+
+    /**
+     * Makes this command write the gains into settings that were added using {@link Namespace#addPIDArray}.
+     *
+     * @return this command
+     */
+    public AutoTuneGenericSubsystemPID withArraySettings() {
+        this.arraySettings = true;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        tuner.reset();
+    }
+
+    @Override
+    public void execute() {
+        subsystem.move(tuner.update(source.get(), Timer.getFPGATimestamp()));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return tuner.isFinished();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        subsystem.stop();
+        if (tuner.isFinished()) {
+            applyResult(tuner.getResult(tuningRule, pidSettings.getIZone(), pidSettings.getTolerance(),
+                    pidSettings.getWaitTime()));
+        }
+    }
+
+    /**
+     * Replaces the gains of the settings with the calculated ones.
+     *
+     * @param result the calculated settings
+     */
+    protected void applyResult(PIDSettings result) {
+        if (namespace != null && arraySettings) {
+            namespace.setPIDArray(name, result);
+        } else if (namespace != null) {
+            namespace.setPIDNamespace(name, result);
+        } else {
+            double kP = result.getkP();
+            double kI = result.getkI();
+            double kD = result.getkD();
+            pidSettings.setkP(() -> kP);
+            pidSettings.setkI(() -> kI);
+            pidSettings.setkD(() -> kD);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.spikes2212.command.genericsubsystem.commands;
+
+import com.spikes2212.command.genericsubsystem.GenericSubsystem;
+import com.spikes2212.control.FeedForwardCharacterizer;
+import com.spikes2212.control.FeedForwardController;
+import com.spikes2212.dashboard.Namespace;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.util.function.Supplier;
+
+/**
+ * This command fits the feed forward gains of a {@link GenericSubsystem} by moving it with a
+ * {@link FeedForwardCharacterizer}, and writes them into feed forward settings that were added using
+ * {@link Namespace#addFeedForwardNamespace}, or using {@link Namespace#addFeedForwardArray} after
+ * {@link #withArraySettings()}. A phase is ended early whenever the subsystem can't move anymore.
+ *
+ * <p>The gains are fitted for a velocity control mode, so the settings should be in that mode, or be used by a
+ * {@link MoveGenericSubsystemWithProfiledPID}, whose feed forward is given the profile's velocity.</p>
+ *
+ * @see FeedForwardCharacterizer
+ */
+public class CharacterizeGenericSubsystemFeedForward extends Command {
+
+    protected final GenericSubsystem subsystem;
+    protected final Supplier<Double> position;
+    protected final Supplier<Double> velocity;
+    protected final FeedForwardCharacterizer characterizer;
+
+    /**
+     * The namespace the feed forward settings were added to.
+     */
+    protected final Namespace namespace;
+
+    /**
+     * The name that was given to the feed forward settings.
+     */
+    protected final String name;
+
+    /**
+     * Whether the feed forward settings were added to the {@link #namespace} as a single array.
+     */
+    protected boolean arraySettings;
+
+    /**
+     * Constructs a new {@link CharacterizeGenericSubsystemFeedForward} command.
+     *
+     * @param subsystem     the subsystem this command operates on
+     * @param position      the Double {@link Supplier} supplying the current position
+     * @param velocity      the Double {@link Supplier} supplying the current velocity
+     * @param characterizer the characterizer which moves the subsystem and fits the gains
+     * @param namespace     the namespace the feed forward settings were added to
+     * @param name          the name that was given to the feed forward settings
+     */
+    public CharacterizeGenericSubsystemFeedForward(GenericSubsystem subsystem, Supplier<Double> position,
+                                                   Supplier<Double> velocity, FeedForwardCharacterizer characterizer,
+                                                   Namespace namespace, String name) {
+        addRequirements(subsystem);
+        this.subsystem = subsystem;
+        this.position = position;
+        this.velocity = velocity;
+        this.characterizer = characterizer;
+        this.namespace = namespace;
+        this.name = name;
+    }
+
+    /**
+     * Constructs a new {@link CharacterizeGenericSubsystemFeedForward} command with a default
+     * {@link FeedForwardCharacterizer}.
+     *
+     * @param subsystem         the subsystem this command operates on
+     * @param position          the Double {@link Supplier} supplying the current position
+     * @param velocity          the Double {@link Supplier} supplying the current velocity
+     * @param controlMode       the velocity control mode whose gains are fitted
+     * @param velocityThreshold the smallest velocity a sample is used at
+     * @param namespace         the namespace the feed forward settings were added to
+     * @param name              the name that was given to the feed forward settings
+     * @throws IllegalArgumentException if the control mode is a position mode
+     */
+    public CharacterizeGenericSubsystemFeedForward(GenericSubsystem subsystem, Supplier<Double> position,
+                                                   Supplier<Double> velocity,
+                                                   FeedForwardController.ControlMode controlMode,
+                                                   double velocityThreshold, Namespace namespace, String name) {
+        this(subsystem, position, velocity, new FeedForwardCharacterizer(controlMode, velocityThreshold), namespace,
+                name);
+    }
+
+    /**
+     * Makes this command write the gains into settings that were added using {@link Namespace#addFeedForwardArray}.
+     *
+     * @return this command
+     */
+    public CharacterizeGenericSubsystemFeedForward withArraySettings() {
+        this.arraySettings = true;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        characterizer.reset();
+        subsystem.move(0);
+    }
+
+    @Override
+    public void execute() {
+        double time = Timer.getFPGATimestamp();
+        double output = characterizer.update(position.get(), velocity.get(), subsystem.getSpeed(), time);
+        if (output != 0 && !subsystem.canMove(output)) {
+            characterizer.nextPhase(time);
+            output = 0;
+        }
+        subsystem.move(output);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return characterizer.isFinished();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        subsystem.stop();
+        if (!interrupted && characterizer.getSampleCount() > 0) {
+            if (arraySettings) {
+                namespace.setFeedForwardArray(name, characterizer.getResult());
+            } else {
+                namespace.setFeedForwardNamespace(name, characterizer.getResult());
+            }
+        }
+    }
+}
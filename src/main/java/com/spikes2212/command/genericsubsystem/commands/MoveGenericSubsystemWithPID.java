@@ -1,9 +1,12 @@
 package com.spikes2212.command.genericsubsystem.commands;
 
 import com.spikes2212.command.genericsubsystem.GenericSubsystem;
+import com.spikes2212.control.ControlLoop;
 import com.spikes2212.control.FeedForwardController;
 import com.spikes2212.control.FeedForwardSettings;
 import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.SnapshotTracker;
+import com.spikes2212.control.SpikesPIDController;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -36,11 +39,47 @@ public class MoveGenericSubsystemWithPID extends Command {
      */
     protected final FeedForwardController feedForwardController;
 
+    /**
+     * A {@link SpikesPIDController} used instead of {@link #pidController}, or {@code null} to use the latter.
+     */
+    protected SpikesPIDController spikesPIDController;
+
+    /**
+     * A loop that calculates and applies the output on its own thread, or {@code null} to do so in
+     * {@link #execute()}.
+     */
+    protected ControlLoop controlLoop;
+
     /**
      * The last time the subsystem didn't reach the target.
      */
     private double lastTimeNotOnTarget;
 
+    /**
+     * Tracks the PID settings that were last applied to the controller.
+     */
+    private final SnapshotTracker<PIDSettings.Snapshot> appliedPIDSettings = new SnapshotTracker<>();
+
+    /**
+     * Tracks the feed forward settings that were last applied to the controller.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> appliedFeedForwardSettings = new SnapshotTracker<>();
+
+    /**
+     * The latest PID settings handed to the {@link #controlLoop}.
+     */
+    private volatile PIDSettings.Snapshot pendingPIDSettings;
+
+    /**
+     * The latest feed forward settings handed to the {@link #controlLoop}.
+     */
+    private volatile FeedForwardSettings.Snapshot pendingFeedForwardSettings;
+
+    /**
+     * The latest acceleration handed to the {@link #controlLoop}.
+     */
+    private volatile double pendingAcceleration;
+
     /**
      * Constructs a new {@link MoveGenericSubsystemWithPID} command that moves the given
      * {@link GenericSubsystem} towards a setpoint given from a Double {@link Supplier}.
@@ -93,33 +132,155 @@ public class MoveGenericSubsystemWithPID extends Command {
         this(subsystem, () -> setpoint, () -> source, () -> 0.0, pidSettings, feedForwardSettings);
     }
 
+    /**
+     * Makes this command use the given {@link SpikesPIDController}, which measures the real time between iterations,
+     * instead of a {@link PIDController}. The PID settings are applied to it like they would be to the latter.
+     *
+     * @param controller the controller to use
+     * @return this command
+     */
+    public MoveGenericSubsystemWithPID withSpikesPIDController(SpikesPIDController controller) {
+        this.spikesPIDController = controller;
+        appliedPIDSettings.reset();
+        return this;
+    }
+
+    /**
+     * Makes this command calculate and apply its output on a {@link ControlLoop} running at the given period, instead
+     * of once every scheduler iteration. The loop reads the source and moves the subsystem on its own thread, while
+     * the setpoint, acceleration and settings are handed to it from {@link #execute()}. Since the loop's period is not
+     * the scheduler's, a {@link SpikesPIDController} is used, and created if none was given.
+     *
+     * @param period   the period of the loop, in seconds
+     * @param priority the real-time priority of the loop's thread between 1 and 99, or 0 to keep its default priority
+     * @return this command
+     */
+    public MoveGenericSubsystemWithPID withControlLoop(double period, int priority) {
+        if (spikesPIDController == null) withSpikesPIDController(new SpikesPIDController());
+        if (controlLoop != null) controlLoop.close();
+        controlLoop = new ControlLoop(source::get, this::calculateOnControlLoop, subsystem::move, period, priority);
+        return this;
+    }
+
+    /**
+     * @return the loop the output is calculated on, or {@code null} if it is calculated in {@link #execute()}
+     */
+    public ControlLoop getControlLoop() {
+        return controlLoop;
+    }
+
+    /**
+     * Applies the PID and feed forward settings to the controllers, only if they changed since they were last
+     * applied.
+     */
+    protected void applySettings() {
+        applySettings(pidSettings.getSnapshot(), feedForwardSettings.getSnapshot());
+    }
+
+    private void applySettings(PIDSettings.Snapshot pid, FeedForwardSettings.Snapshot feedForward) {
+        if (appliedPIDSettings.changed(pid)) {
+            if (spikesPIDController != null) {
+                spikesPIDController.setSettings(pid);
+            } else {
+                pidController.setTolerance(pid.getTolerance());
+                pidController.setPID(pid.getkP(), pid.getkI(), pid.getkD());
+                pidController.setIZone(pid.getIZone());
+            }
+        }
+        if (appliedFeedForwardSettings.changed(feedForward)) {
+            feedForwardController.setGains(feedForward);
+        }
+    }
+
     protected double calculatePIDAndFFValues() {
-        pidController.setTolerance(pidSettings.getTolerance());
-        pidController.setPID(pidSettings.getkP(), pidSettings.getkI(), pidSettings.getkD());
-        pidController.setIZone(pidSettings.getIZone());
-        feedForwardController.setGains(feedForwardSettings);
+        applySettings();
 
-        double pidValue = pidController.calculate(source.get(), setpoint.get());
-        double svagValue = feedForwardController.calculate(source.get(), setpoint.get(), acceleration.get());
+        double currentSource = source.get();
+        double currentSetpoint = setpoint.get();
+        double pidValue = spikesPIDController != null ?
+                spikesPIDController.calculate(currentSource, currentSetpoint) :
+                pidController.calculate(currentSource, currentSetpoint);
+        double svagValue = feedForwardController.calculate(currentSource, currentSetpoint, acceleration.get());
         return pidValue + svagValue;
     }
 
+    /**
+     * The control law calculated on the {@link #controlLoop}'s thread.
+     */
+    private double calculateOnControlLoop(double measurement, double setpoint, double period) {
+        applySettings(pendingPIDSettings, pendingFeedForwardSettings);
+        return spikesPIDController.calculate(measurement, setpoint, period) +
+                calculateFeedForwardOnControlLoop(measurement, setpoint);
+    }
+
+    /**
+     * Calculates the feed forward on the {@link #controlLoop}'s thread, after the settings were applied to the
+     * {@link #feedForwardController}.
+     *
+     * @param measurement the current state
+     * @param setpoint    the setpoint the loop follows
+     * @return the feed forward output
+     */
+    protected double calculateFeedForwardOnControlLoop(double measurement, double setpoint) {
+        return feedForwardController.calculate(measurement, setpoint, pendingAcceleration);
+    }
+
+    /**
+     * Calculates the setpoint to hand to the {@link #controlLoop}. Called once every scheduler iteration.
+     *
+     * @return the setpoint the loop should follow
+     */
+    protected double calculateControlLoopSetpoint() {
+        return setpoint.get();
+    }
+
+    /**
+     * Hands the current setpoint, acceleration and settings to the {@link #controlLoop}.
+     */
+    private void handOffToControlLoop() {
+        pendingPIDSettings = pidSettings.getSnapshot();
+        pendingFeedForwardSettings = feedForwardSettings.getSnapshot();
+        pendingAcceleration = acceleration.get();
+        controlLoop.setSetpoint(calculateControlLoopSetpoint());
+    }
+
+    @Override
+    public void initialize() {
+        if (spikesPIDController != null) spikesPIDController.reset();
+        if (controlLoop != null) {
+            handOffToControlLoop();
+            controlLoop.start();
+        }
+    }
+
     @Override
     public void execute() {
-        subsystem.move(calculatePIDAndFFValues());
+        if (controlLoop != null) {
+            handOffToControlLoop();
+        } else {
+            subsystem.move(calculatePIDAndFFValues());
+        }
     }
 
     @Override
     public void end(boolean interrupted) {
+        if (controlLoop != null) controlLoop.stop();
         subsystem.stop();
     }
 
     @Override
     public boolean isFinished() {
-        if (!pidController.atSetpoint()) {
+        PIDSettings.Snapshot pid = pidSettings.getSnapshot();
+        boolean atSetpoint;
+        if (controlLoop != null) {
+            atSetpoint = Math.abs(controlLoop.getSetpoint() - controlLoop.getMeasurement()) <= pid.getTolerance();
+        } else {
+            atSetpoint = spikesPIDController != null ? spikesPIDController.atSetpoint() : pidController.atSetpoint();
+        }
+        if (!atSetpoint) {
             lastTimeNotOnTarget = Timer.getFPGATimestamp();
         }
 
-        return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= pidSettings.getWaitTime();
+        return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= pid.getWaitTime();
     }
 }
@@ -0,0 +1,165 @@
+package com.spikes2212.command.genericsubsystem.commands;
+
+import com.spikes2212.command.genericsubsystem.GenericSubsystem;
+import com.spikes2212.control.FeedForwardController;
+import com.spikes2212.control.FeedForwardSettings;
+import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.SCurveProfile;
+import com.spikes2212.control.SCurveProfileCache;
+import com.spikes2212.control.TrapezoidProfileSettings;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * This command moves a {@link GenericSubsystem} to a goal along a jerk-limited {@link SCurveProfile}. Every iteration,
+ * the PID controller follows the profile's position, while the feed forward is calculated from the profile's velocity
+ * and acceleration. The curve of the {@link TrapezoidProfileSettings} is used as the maximal jerk, where 0 means
+ * unlimited jerk.
+ *
+ * <p>The goal, the current position and the profile settings are read once, when the command is initialized, to plan
+ * the profile. The PID and feed forward settings are still applied every iteration.</p>
+ *
+ * <p>On a {@link #withControlLoop(double, int) control loop}, the profile is sampled every scheduler iteration, and its
+ * position is handed to the loop as the setpoint along with its velocity and acceleration, from which the loop
+ * calculates the feed forward.</p>
+ *
+ * @see MoveGenericSubsystemWithPID
+ * @see SCurveProfile
+ */
+public class MoveGenericSubsystemWithProfiledPID extends MoveGenericSubsystemWithPID {
+
+    protected final TrapezoidProfileSettings profileSettings;
+
+    /**
+     * The profile the subsystem follows to the goal.
+     */
+    protected final SCurveProfile profile;
+
+    /**
+     * A cache the profile is planned through, or {@code null} to plan it every time.
+     */
+    protected SCurveProfileCache profileCache;
+
+    /**
+     * A feed forward controller in the velocity mode matching the feed forward settings' position mode, which is
+     * given the profile's velocity and acceleration.
+     */
+    private final FeedForwardController velocityFeedForwardController;
+
+    /**
+     * The time the profile started at.
+     */
+    private double startTime;
+
+    /**
+     * The profile's velocity handed to the {@link #controlLoop}.
+     */
+    private volatile double pendingVelocity;
+
+    /**
+     * The profile's acceleration handed to the {@link #controlLoop}.
+     */
+    private volatile double pendingProfileAcceleration;
+
+    /**
+     * Constructs a new {@link MoveGenericSubsystemWithProfiledPID} command that moves the given
+     * {@link GenericSubsystem} to a goal given from a Double {@link Supplier}.
+     *
+     * @param subsystem           the subsystem this command operates on
+     * @param goal                the Double {@link Supplier} supplying the goal
+     * @param source              the Double {@link Supplier} supplying the current position
+     * @param pidSettings         the pid constants used for following the profile's position
+     * @param feedForwardSettings the feed forward constants used for following the profile's velocity and
+     *                            acceleration
+     * @param profileSettings     the constraints of the profile
+     */
+    public MoveGenericSubsystemWithProfiledPID(GenericSubsystem subsystem, Supplier<Double> goal,
+                                               Supplier<Double> source, PIDSettings pidSettings,
+                                               FeedForwardSettings feedForwardSettings,
+                                               TrapezoidProfileSettings profileSettings) {
+        super(subsystem, goal, source, pidSettings, feedForwardSettings);
+        this.profileSettings = profileSettings;
+        this.profile = new SCurveProfile();
+        this.velocityFeedForwardController = new FeedForwardController(feedForwardSettings.getkS(),
+                feedForwardSettings.getkV(), feedForwardSettings.getkA(), feedForwardSettings.getkG(),
+                velocityMode(feedForwardSettings.getControlMode()));
+    }
+
+    public MoveGenericSubsystemWithProfiledPID(GenericSubsystem subsystem, double goal, Supplier<Double> source,
+                                               PIDSettings pidSettings, FeedForwardSettings feedForwardSettings,
+                                               TrapezoidProfileSettings profileSettings) {
+        this(subsystem, () -> goal, source, pidSettings, feedForwardSettings, profileSettings);
+    }
+
+    /**
+     * Makes this command plan its profile through the given cache, which may be shared with other commands.
+     *
+     * @param cache the cache to plan the profile through
+     * @return this command
+     */
+    public MoveGenericSubsystemWithProfiledPID withProfileCache(SCurveProfileCache cache) {
+        this.profileCache = cache;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        if (profileCache != null) {
+            profileCache.plan(profile, source.get(), setpoint.get(), profileSettings.getSnapshot());
+        } else {
+            profile.set(source.get(), setpoint.get(), profileSettings.getSnapshot());
+        }
+        startTime = Timer.getFPGATimestamp();
+        super.initialize();
+    }
+
+    /**
+     * Samples the profile, and hands its velocity and acceleration to the {@link #controlLoop}.
+     *
+     * @return the profile's position
+     */
+    @Override
+    protected double calculateControlLoopSetpoint() {
+        profile.calculate(Timer.getFPGATimestamp() - startTime);
+        pendingVelocity = profile.getVelocity();
+        pendingProfileAcceleration = profile.getAcceleration();
+        return profile.getPosition();
+    }
+
+    @Override
+    protected double calculateFeedForwardOnControlLoop(double measurement, double setpoint) {
+        velocityFeedForwardController.setGains(feedForwardController.getkS(), feedForwardController.getkV(),
+                feedForwardController.getkA(), feedForwardController.getkG());
+        return velocityFeedForwardController.calculate(measurement, pendingVelocity, pendingProfileAcceleration);
+    }
+
+    @Override
+    protected double calculatePIDAndFFValues() {
+        applySettings();
+        velocityFeedForwardController.setGains(feedForwardController.getkS(), feedForwardController.getkV(),
+                feedForwardController.getkA(), feedForwardController.getkG());
+        profile.calculate(Timer.getFPGATimestamp() - startTime);
+
+        double currentSource = source.get();
+        double pidValue = spikesPIDController != null ?
+                spikesPIDController.calculate(currentSource, profile.getPosition()) :
+                pidController.calculate(currentSource, profile.getPosition());
+        double svagValue = velocityFeedForwardController.calculate(currentSource, profile.getVelocity(),
+                profile.getAcceleration());
+        return pidValue + svagValue;
+    }
+
+    @Override
+    public boolean isFinished() {
+        boolean onTarget = super.isFinished();
+        return profile.isFinished(Timer.getFPGATimestamp() - startTime) && onTarget;
+    }
+
+    private static FeedForwardController.ControlMode velocityMode(FeedForwardController.ControlMode controlMode) {
+        return switch (controlMode) {
+            case LINEAR_POSITION, LINEAR_VELOCITY -> FeedForwardController.ControlMode.LINEAR_VELOCITY;
+            case ANGULAR_POSITION, ANGULAR_VELOCITY -> FeedForwardController.ControlMode.ANGULAR_VELOCITY;
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.spikes2212.command.genericsubsystem.commands;
+
+import com.spikes2212.command.genericsubsystem.GenericSubsystem;
+import com.spikes2212.control.StateSpaceController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.util.function.Supplier;
+
+/**
+ * This command moves a {@link GenericSubsystem} towards a setpoint using a {@link StateSpaceController}, until it has
+ * been within the controller's tolerance for the wait time.
+ *
+ * @see StateSpaceController
+ */
+public class MoveGenericSubsystemWithStateSpace extends Command {
+
+    protected final GenericSubsystem subsystem;
+    protected final Supplier<Double> setpoint;
+    protected final Supplier<Double> source;
+
+    /**
+     * An object that makes the necessary calculations for the state-space control loop.
+     */
+    protected final StateSpaceController controller;
+
+    /**
+     * The time required to stay on target, in seconds.
+     */
+    protected final double waitTime;
+
+    /**
+     * The last time the subsystem didn't reach the target.
+     */
+    private double lastTimeNotOnTarget;
+
+    /**
+     * Constructs a new {@link MoveGenericSubsystemWithStateSpace} command that moves the given
+     * {@link GenericSubsystem} towards a setpoint given from a Double {@link Supplier}.
+     *
+     * @param subsystem  the subsystem this command operates on
+     * @param setpoint   the Double {@link Supplier} supplying the setpoint
+     * @param source     the Double {@link Supplier} supplying the current state
+     * @param controller the controller used for calculating the move value for each iteration
+     * @param waitTime   the time required to stay on target, in seconds
+     */
+    public MoveGenericSubsystemWithStateSpace(GenericSubsystem subsystem, Supplier<Double> setpoint,
+                                              Supplier<Double> source, StateSpaceController controller,
+                                              double waitTime) {
+        addRequirements(subsystem);
+        this.subsystem = subsystem;
+        this.setpoint = setpoint;
+        this.source = source;
+        this.controller = controller;
+        this.waitTime = waitTime;
+    }
+
+    public MoveGenericSubsystemWithStateSpace(GenericSubsystem subsystem, double setpoint, Supplier<Double> source,
+                                              StateSpaceController controller, double waitTime) {
+        this(subsystem, () -> setpoint, source, controller, waitTime);
+    }
+
+    @Override
+    public void initialize() {
+        controller.reset(source.get());
+        lastTimeNotOnTarget = Timer.getFPGATimestamp();
+    }
+
+    @Override
+    public void execute() {
+        subsystem.move(controller.calculate(source.get(), setpoint.get()));
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        subsystem.stop();
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (!controller.atSetpoint()) {
+            lastTimeNotOnTarget = Timer.getFPGATimestamp();
+        }
+        return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= waitTime;
+    }
+}
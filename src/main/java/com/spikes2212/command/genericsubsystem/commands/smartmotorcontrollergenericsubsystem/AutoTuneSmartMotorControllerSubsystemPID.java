@@ -0,0 +1,44 @@
+package com.spikes2212.command.genericsubsystem.commands.smartmotorcontrollergenericsubsystem;
+
+import com.spikes2212.command.genericsubsystem.commands.AutoTuneGenericSubsystemPID;
+import com.spikes2212.command.genericsubsystem.smartmotorcontrollersubsystem.SmartMotorControllerGenericSubsystem;
+import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.RelayAutoTuner;
+import com.spikes2212.dashboard.Namespace;
+
+import java.util.function.Supplier;
+
+/**
+ * An {@link AutoTuneGenericSubsystemPID} for a {@link SmartMotorControllerGenericSubsystem}, which also configures the
+ * calculated gains on its motor controllers once they are found.
+ *
+ * @see AutoTuneGenericSubsystemPID
+ */
+public class AutoTuneSmartMotorControllerSubsystemPID extends AutoTuneGenericSubsystemPID {
+
+    /**
+     * The {@link SmartMotorControllerGenericSubsystem} this command will run on.
+     */
+    protected final SmartMotorControllerGenericSubsystem smartMotorControllerSubsystem;
+
+    public AutoTuneSmartMotorControllerSubsystemPID(SmartMotorControllerGenericSubsystem subsystem,
+                                                    Supplier<Double> source, RelayAutoTuner tuner,
+                                                    RelayAutoTuner.TuningRule tuningRule, PIDSettings pidSettings,
+                                                    Namespace namespace, String name) {
+        super(subsystem, source, tuner, tuningRule, pidSettings, namespace, name);
+        this.smartMotorControllerSubsystem = subsystem;
+    }
+
+    public AutoTuneSmartMotorControllerSubsystemPID(SmartMotorControllerGenericSubsystem subsystem,
+                                                    Supplier<Double> source, RelayAutoTuner tuner,
+                                                    RelayAutoTuner.TuningRule tuningRule, PIDSettings pidSettings) {
+        super(subsystem, source, tuner, tuningRule, pidSettings);
+        this.smartMotorControllerSubsystem = subsystem;
+    }
+
+    @Override
+    protected void applyResult(PIDSettings result) {
+        super.applyResult(result);
+        smartMotorControllerSubsystem.configurePID(result);
+    }
+}
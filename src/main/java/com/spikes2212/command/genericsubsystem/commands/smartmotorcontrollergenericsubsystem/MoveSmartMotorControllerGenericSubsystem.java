@@ -46,6 +46,12 @@ public class MoveSmartMotorControllerGenericSubsystem extends Command {
 
     protected final boolean updatePeriodically;
 
+    /**
+     * The shortest time between configurations of changed settings, in seconds, or 0 to configure them only as
+     * {@link #updatePeriodically} says.
+     */
+    protected double configurationPeriod;
+
     /**
      * The most recent timestamp on which the loop has not reached its target setpoint.
      */
@@ -82,6 +88,20 @@ public class MoveSmartMotorControllerGenericSubsystem extends Command {
         this(subsystem, pidSettings, feedForwardSettings, controlMode, setpoint, () -> 0.0, updatePeriodically);
     }
 
+    /**
+     * Makes this command configure the loop's settings whenever they change, but at most once every given period,
+     * instead of as {@link #updatePeriodically} says. Meant for settings that keep changing, like
+     * {@link com.spikes2212.control.GainScheduledPIDSettings}.
+     *
+     * @param period the shortest time between configurations, in seconds
+     * @return this command
+     * @see SmartMotorControllerGenericSubsystem#configurePID(PIDSettings, double)
+     */
+    public MoveSmartMotorControllerGenericSubsystem withConfigurationPeriod(double period) {
+        this.configurationPeriod = period;
+        return this;
+    }
+
     /**
      * Configures the subsystem's control loops.
      */
@@ -95,8 +115,12 @@ public class MoveSmartMotorControllerGenericSubsystem extends Command {
      */
     @Override
     public void execute() {
+        if (configurationPeriod > 0) {
+            subsystem.configurePID(pidSettings, configurationPeriod);
+            subsystem.configureFF(feedForwardSettings, configurationPeriod);
+        }
         subsystem.pidSet(controlMode, setpoint.get(), acceleration.get(), pidSettings, feedForwardSettings,
-                updatePeriodically);
+                updatePeriodically && configurationPeriod <= 0);
     }
 
     @Override
@@ -2,10 +2,13 @@ package com.spikes2212.command.genericsubsystem.smartmotorcontrollersubsystem;
 
 import com.spikes2212.command.genericsubsystem.MotoredGenericSubsystem;
 import com.spikes2212.control.FeedForwardSettings;
+import com.spikes2212.control.GainScheduledPIDSettings;
 import com.spikes2212.control.PIDSettings;
+import com.spikes2212.control.SnapshotTracker;
 import com.spikes2212.control.TrapezoidProfileSettings;
 import com.spikes2212.util.UnifiedControlMode;
 import com.spikes2212.util.smartmotorcontrollers.SmartMotorController;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 
 import java.util.List;
@@ -19,6 +22,19 @@ public class SmartMotorControllerGenericSubsystem extends MotoredGenericSubsyste
 
     private final List<? extends SmartMotorController> motorControllers;
 
+    /**
+     * Tracks the PID settings last configured by {@link #configurePID(PIDSettings, double)}.
+     */
+    private final SnapshotTracker<PIDSettings.Snapshot> configuredPIDSettings = new SnapshotTracker<>();
+
+    /**
+     * Tracks the feed forward settings last configured by {@link #configureFF(FeedForwardSettings, double)}.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> configuredFeedForwardSettings = new SnapshotTracker<>();
+
+    private double lastPIDConfigurationTime = Double.NEGATIVE_INFINITY;
+    private double lastFeedForwardConfigurationTime = Double.NEGATIVE_INFINITY;
+
     public SmartMotorControllerGenericSubsystem(String namespaceName, SmartMotorController... motorControllers) {
         super(namespaceName, motorControllers);
         this.motorControllers = List.of(motorControllers);
@@ -31,6 +47,25 @@ public class SmartMotorControllerGenericSubsystem extends MotoredGenericSubsyste
         motorControllers.forEach(smartMotorController -> smartMotorController.configurePID(pidSettings));
     }
 
+    /**
+     * Configures the loop's PID constants only if they changed since they were last configured by this method, and
+     * at most once every given period, so settings that keep changing, like {@link GainScheduledPIDSettings}, don't
+     * flood the CAN bus with configuration frames. Should be called periodically, so the latest constants are
+     * configured once the period passes.
+     *
+     * @param pidSettings the PID constants
+     * @param minPeriod   the shortest time between configurations, in seconds
+     * @return whether the constants were configured
+     */
+    public boolean configurePID(PIDSettings pidSettings, double minPeriod) {
+        PIDSettings.Snapshot snapshot = pidSettings.getSnapshot();
+        double now = Timer.getFPGATimestamp();
+        if (now - lastPIDConfigurationTime < minPeriod || !configuredPIDSettings.changed(snapshot)) return false;
+        configurePID(pidSettings);
+        lastPIDConfigurationTime = now;
+        return true;
+    }
+
     /**
      * Configures the loop's feed forward gains.
      */
@@ -38,6 +73,26 @@ public class SmartMotorControllerGenericSubsystem extends MotoredGenericSubsyste
         motorControllers.forEach(smartMotorController -> smartMotorController.configureFF(feedForwardSettings));
     }
 
+    /**
+     * Configures the loop's feed forward gains only if they changed since they were last configured by this method,
+     * and at most once every given period.
+     *
+     * @param feedForwardSettings the feed forward gains
+     * @param minPeriod           the shortest time between configurations, in seconds
+     * @return whether the gains were configured
+     * @see #configurePID(PIDSettings, double)
+     */
+    public boolean configureFF(FeedForwardSettings feedForwardSettings, double minPeriod) {
+        FeedForwardSettings.Snapshot snapshot = feedForwardSettings.getSnapshot();
+        double now = Timer.getFPGATimestamp();
+        if (now - lastFeedForwardConfigurationTime < minPeriod || !configuredFeedForwardSettings.changed(snapshot)) {
+            return false;
+        }
+        configureFF(feedForwardSettings);
+        lastFeedForwardConfigurationTime = now;
+        return true;
+    }
+
     /**
      * Configures the loop's trapezoid profile settings.
      */
@@ -0,0 +1,316 @@
+package com.spikes2212.control;
+
+import com.spikes2212.util.LatencyHistogram;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Threads;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Runs a control law on its own {@link Notifier} thread, at a higher rate than the command scheduler.
+ *
+ * <p>Every iteration reads the measurement, calculates the output from the latest setpoint and passes it on, all on
+ * the loop's thread. The setpoint is handed to the loop, and the measurement and output are handed back, through
+ * volatile fields, so an iteration never waits for the robot thread; the only lock it takes briefly guards the timing
+ * statistics. Only {@link #stop()} waits: it clears the running flag, which every iteration checks before doing
+ * anything, and then waits for an iteration in progress to finish, so no output is passed on after it returns. The
+ * loop also records how late every iteration started (its jitter), how long it took and how many iterations overran
+ * their period.</p>
+ *
+ * <p>The {@link Notifier} only exists while the loop is running; it is created by {@link #start()} and closed by
+ * {@link #stop()}, so a loop that is not running holds no thread.</p>
+ */
+public class ControlLoop implements AutoCloseable {
+
+    /**
+     * A control law which is calculated on every iteration of a {@link ControlLoop}.
+     */
+    @FunctionalInterface
+    public interface ControlLaw {
+
+        /**
+         * @param measurement the current state
+         * @param setpoint    the desired state
+         * @param period      the time since the last iteration, in seconds
+         * @return the output
+         */
+        double calculate(double measurement, double setpoint, double period);
+    }
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final DoubleSupplier measurementSource;
+    private final ControlLaw law;
+    private final DoubleConsumer output;
+
+    /**
+     * The period of the loop, in seconds.
+     */
+    private final double period;
+
+    private final long periodNanos;
+
+    /**
+     * The real-time priority of the loop's thread, or 0 to keep its default priority.
+     */
+    private final int priority;
+
+    /**
+     * How late every iteration started, compared to the previous one. Guarded by itself.
+     */
+    private final LatencyHistogram jitter;
+
+    /**
+     * How long every iteration took. Guarded by {@link #jitter}.
+     */
+    private final LatencyHistogram executionTime;
+
+    /**
+     * Held by {@link #start()} and {@link #stop()}, so the loop is not started again before it stopped. Never held by
+     * the iterations.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The notifier running the loop, or {@code null} while it is not running. Guarded by {@link #lock}.
+     */
+    private Notifier notifier;
+
+    private volatile double setpoint;
+    private volatile double measurement;
+    private volatile double lastOutput;
+    private volatile long overrunCount;
+    private volatile boolean running;
+
+    /**
+     * Whether an iteration is in progress. Set before an iteration checks {@link #running}, so once {@link #stop()}
+     * cleared the flag and saw no iteration in progress, no iteration will pass on an output.
+     */
+    private volatile boolean iterating;
+
+    private long lastStartNanos;
+    private boolean hasLastStart;
+    private boolean priorityRaised;
+
+    /**
+     * Constructs a control loop.
+     *
+     * @param measurementSource supplies the current state, read on the loop's thread
+     * @param law               the control law
+     * @param output            receives the output of every iteration, on the loop's thread
+     * @param period            the period of the loop, in seconds
+     * @param priority          the real-time priority of the loop's thread between 1 and 99, or 0 to keep its default
+     *                          priority
+     */
+    public ControlLoop(DoubleSupplier measurementSource, ControlLaw law, DoubleConsumer output, double period,
+                       int priority) {
+        if (period <= 0) throw new IllegalArgumentException("period must be positive");
+        if (priority < 0 || priority > 99) throw new IllegalArgumentException("priority must be between 0 and 99");
+        this.measurementSource = measurementSource;
+        this.law = law;
+        this.output = output;
+        this.period = period;
+        this.periodNanos = (long) (period * NANOS_PER_SECOND);
+        this.priority = priority;
+        this.jitter = new LatencyHistogram();
+        this.executionTime = new LatencyHistogram();
+    }
+
+    public ControlLoop(DoubleSupplier measurementSource, ControlLaw law, DoubleConsumer output, double period) {
+        this(measurementSource, law, output, period, 0);
+    }
+
+    /**
+     * Starts running the loop, if it is not running already.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) return;
+            hasLastStart = false;
+            priorityRaised = false;
+            measurement = measurementSource.getAsDouble();
+            notifier = new Notifier(this::iterate);
+            notifier.setName("control loop");
+            running = true;
+            notifier.startPeriodic(period);
+        }
+    }
+
+    /**
+     * Stops running the loop and closes its {@link Notifier}. Waits for an iteration in progress, so no output is
+     * passed on after this returns. Must not be called from the loop's own thread.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (!running) return;
+            running = false;
+            notifier.stop();
+            while (iterating) {
+                Thread.yield();
+            }
+            notifier.close();
+            notifier = null;
+        }
+    }
+
+    /**
+     * @return whether the loop is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Hands a new setpoint to the loop, which uses it from its next iteration.
+     *
+     * @param setpoint the desired state
+     */
+    public void setSetpoint(double setpoint) {
+        this.setpoint = setpoint;
+    }
+
+    public double getSetpoint() {
+        return setpoint;
+    }
+
+    /**
+     * @return the measurement of the latest iteration
+     */
+    public double getMeasurement() {
+        return measurement;
+    }
+
+    /**
+     * @return the output of the latest iteration
+     */
+    public double getLastOutput() {
+        return lastOutput;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return the number of iterations that took longer than the period or started more than a period late
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * @return the number of iterations since the statistics were last reset
+     */
+    public long getIterationCount() {
+        synchronized (jitter) {
+            return executionTime.getCount();
+        }
+    }
+
+    /**
+     * @return the mean difference between the time between two iterations and the period, in microseconds
+     */
+    public double getMeanJitter() {
+        synchronized (jitter) {
+            return jitter.getMean();
+        }
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 1
+     * @return an upper bound of the given percentile of the jitter, in microseconds
+     */
+    public double getJitterPercentile(double percentile) {
+        synchronized (jitter) {
+            return jitter.getPercentile(percentile);
+        }
+    }
+
+    /**
+     * @return the largest jitter, in microseconds
+     */
+    public double getMaxJitter() {
+        synchronized (jitter) {
+            return jitter.getMax();
+        }
+    }
+
+    /**
+     * @return the mean time an iteration took, in microseconds
+     */
+    public double getMeanExecutionTime() {
+        synchronized (jitter) {
+            return executionTime.getMean();
+        }
+    }
+
+    /**
+     * @return the longest time an iteration took, in microseconds
+     */
+    public double getMaxExecutionTime() {
+        synchronized (jitter) {
+            return executionTime.getMax();
+        }
+    }
+
+    /**
+     * Clears the timing statistics.
+     */
+    public void resetStatistics() {
+        synchronized (jitter) {
+            jitter.reset();
+            executionTime.reset();
+        }
+        overrunCount = 0;
+    }
+
+    /**
+     * Stops the loop, releasing its {@link Notifier}. The loop can still be started again.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void iterate() {
+        iterating = true;
+        try {
+            if (running) iterateRunning();
+        } finally {
+            iterating = false;
+        }
+    }
+
+    private void iterateRunning() {
+        long start = System.nanoTime();
+        if (priority > 0 && !priorityRaised) {
+            Threads.setCurrentThreadPriority(true, priority);
+            priorityRaised = true;
+        }
+        double iterationPeriod = period;
+        boolean overran = false;
+        if (hasLastStart) {
+            long actualPeriod = start - lastStartNanos;
+            iterationPeriod = actualPeriod / NANOS_PER_SECOND;
+            overran = actualPeriod > 2 * periodNanos;
+            synchronized (jitter) {
+                jitter.record(Math.abs(actualPeriod - periodNanos));
+            }
+        }
+        lastStartNanos = start;
+        hasLastStart = true;
+
+        double currentMeasurement = measurementSource.getAsDouble();
+        measurement = currentMeasurement;
+        double currentOutput = law.calculate(currentMeasurement, setpoint, iterationPeriod);
+        lastOutput = currentOutput;
+        output.accept(currentOutput);
+
+        long elapsed = System.nanoTime() - start;
+        synchronized (jitter) {
+            executionTime.record(elapsed);
+        }
+        if (overran || elapsed > periodNanos) overrunCount++;
+    }
+}
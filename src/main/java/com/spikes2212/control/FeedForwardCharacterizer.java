@@ -0,0 +1,219 @@
+package com.spikes2212.control;
+
+/**
+ * Fits the gains of a {@link FeedForwardController} from a mechanism's response to known outputs, while the
+ * mechanism is running.
+ *
+ * <p>The characterizer drives the mechanism through four phases: a slow (quasistatic) ramp forward and backward,
+ * which mostly reveals kS, kV and kG, and a sudden (dynamic) step forward and backward, which mostly reveals kA.
+ * Every sample is fed to a {@link RecursiveLeastSquares} solver fitting
+ * {@code output = kS * sign(velocity) + kV * velocity + kA * acceleration + kG * gravity}, where gravity is 1 in
+ * the linear control mode and the cosine of the position in the angular one. Each phase has a short rest at zero output
+ * before it, which lets the mechanism slow down between directions.</p>
+ *
+ * <p>The outputs are in the units the mechanism is moved with, so the fitted gains are in the same units and can be
+ * used by the commands that move it.</p>
+ *
+ * <p>Since kV is fitted against the velocity, only the velocity control modes are supported; in the position modes a
+ * {@link FeedForwardController} multiplies kV by a position. The fitted gains also suit the feed forward of
+ * commands that follow a profile's velocity, such as {@code MoveGenericSubsystemWithProfiledPID}.</p>
+ */
+public class FeedForwardCharacterizer {
+
+    /**
+     * The phases of the characterization, in order.
+     */
+    public enum Phase {
+
+        QUASISTATIC_FORWARD, QUASISTATIC_BACKWARD, DYNAMIC_FORWARD, DYNAMIC_BACKWARD, DONE
+    }
+
+    /**
+     * The default rate at which the quasistatic phases increase the output, per second.
+     */
+    public static final double DEFAULT_RAMP_RATE = 0.05;
+
+    /**
+     * The default output of the dynamic phases.
+     */
+    public static final double DEFAULT_STEP_OUTPUT = 0.4;
+
+    /**
+     * The default duration of every phase, in seconds.
+     */
+    public static final double DEFAULT_PHASE_DURATION = 4;
+
+    /**
+     * The time at zero output before every phase, in seconds.
+     */
+    public static final double REST_DURATION = 1;
+
+    /**
+     * The time constant of the acceleration's low pass filter, in seconds.
+     */
+    private static final double ACCELERATION_FILTER_TIME = 0.04;
+
+    private static final int KS = 0;
+    private static final int KV = 1;
+    private static final int KA = 2;
+    private static final int KG = 3;
+
+    private final FeedForwardController.ControlMode controlMode;
+    private final double rampRate;
+    private final double stepOutput;
+    private final double phaseDuration;
+
+    /**
+     * The smallest velocity a sample is used at, since the direction of static friction is unknown at rest.
+     */
+    private final double velocityThreshold;
+
+    private final RecursiveLeastSquares solver;
+
+    /**
+     * The features of the current sample.
+     */
+    private final double[] features;
+
+    private Phase phase;
+    private double phaseStartTime;
+    private double lastTime;
+    private double lastVelocity;
+    private double acceleration;
+    private boolean hasLastSample;
+
+    /**
+     * Constructs a characterizer.
+     *
+     * @param controlMode       the control mode whose gains are fitted, which must be a velocity mode
+     * @param rampRate          the rate at which the quasistatic phases increase the output, per second
+     * @param stepOutput        the output of the dynamic phases
+     * @param phaseDuration     the maximal duration of every phase, not including its rest, in seconds
+     * @param velocityThreshold the smallest velocity a sample is used at
+     */
+    public FeedForwardCharacterizer(FeedForwardController.ControlMode controlMode, double rampRate,
+                                    double stepOutput, double phaseDuration, double velocityThreshold) {
+        if (rampRate <= 0 || stepOutput <= 0 || phaseDuration <= 0) {
+            throw new IllegalArgumentException("ramp rate, step output and phase duration must be positive");
+        }
+        if (controlMode != FeedForwardController.ControlMode.LINEAR_VELOCITY
+                && controlMode != FeedForwardController.ControlMode.ANGULAR_VELOCITY) {
+            throw new IllegalArgumentException("only the velocity control modes can be characterized");
+        }
+        this.controlMode = controlMode;
+        this.rampRate = rampRate;
+        this.stepOutput = stepOutput;
+        this.phaseDuration = phaseDuration;
+        this.velocityThreshold = velocityThreshold;
+        this.solver = new RecursiveLeastSquares(4);
+        this.features = new double[4];
+        reset();
+    }
+
+    public FeedForwardCharacterizer(FeedForwardController.ControlMode controlMode, double velocityThreshold) {
+        this(controlMode, DEFAULT_RAMP_RATE, DEFAULT_STEP_OUTPUT, DEFAULT_PHASE_DURATION, velocityThreshold);
+    }
+
+    /**
+     * Clears all the samples and starts over from the first phase.
+     */
+    public void reset() {
+        solver.reset();
+        phase = Phase.QUASISTATIC_FORWARD;
+        hasLastSample = false;
+        acceleration = 0;
+    }
+
+    /**
+     * Feeds a sample of the mechanism's state and calculates the next output to move it with. Should be called
+     * periodically from the start of the characterization.
+     *
+     * @param position      the current position
+     * @param velocity      the current velocity
+     * @param appliedOutput the output the mechanism was moved with since the last call
+     * @param time          the current time, in seconds
+     * @return the output to move the mechanism with until the next call
+     */
+    public double update(double position, double velocity, double appliedOutput, double time) {
+        if (!hasLastSample) {
+            phaseStartTime = time;
+        } else {
+            double period = time - lastTime;
+            if (period > 0) {
+                double rawAcceleration = (velocity - lastVelocity) / period;
+                acceleration += (rawAcceleration - acceleration) * period / (ACCELERATION_FILTER_TIME + period);
+                if (Math.abs(velocity) >= velocityThreshold) {
+                    features[KS] = Math.signum(velocity);
+                    features[KV] = velocity;
+                    features[KA] = acceleration;
+                    features[KG] = isAngular() ? Math.cos(position) : 1;
+                    solver.update(features, appliedOutput);
+                }
+            }
+        }
+        lastTime = time;
+        lastVelocity = velocity;
+        hasLastSample = true;
+
+        double elapsed = time - phaseStartTime - REST_DURATION;
+        if (elapsed >= phaseDuration) {
+            nextPhase(time);
+            elapsed = -REST_DURATION;
+        }
+        if (elapsed < 0) return 0;
+        return switch (phase) {
+            case QUASISTATIC_FORWARD -> rampRate * elapsed;
+            case QUASISTATIC_BACKWARD -> -rampRate * elapsed;
+            case DYNAMIC_FORWARD -> stepOutput;
+            case DYNAMIC_BACKWARD -> -stepOutput;
+            case DONE -> 0;
+        };
+    }
+
+    /**
+     * Ends the current phase early, such as when the mechanism reaches a limit.
+     *
+     * @param time the current time, in seconds
+     */
+    public void nextPhase(double time) {
+        if (phase != Phase.DONE) phase = Phase.values()[phase.ordinal() + 1];
+        phaseStartTime = time;
+    }
+
+    /**
+     * @return the current phase
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return whether all the phases are done
+     */
+    public boolean isFinished() {
+        return phase == Phase.DONE;
+    }
+
+    /**
+     * @return the number of samples the gains were fitted from
+     */
+    public long getSampleCount() {
+        return solver.getSampleCount();
+    }
+
+    /**
+     * @return the fitted gains, for the characterizer's control mode
+     */
+    public FeedForwardSettings getResult() {
+        return new FeedForwardSettings(solver.getParameter(KS), solver.getParameter(KV), solver.getParameter(KA),
+                solver.getParameter(KG), controlMode);
+    }
+
+    public FeedForwardController.ControlMode getControlMode() {
+        return controlMode;
+    }
+
+    private boolean isAngular() {
+        return controlMode == FeedForwardController.ControlMode.ANGULAR_VELOCITY;
+    }
+}
@@ -78,6 +78,11 @@ public class FeedForwardController {
                 feedForwardSettings.getkG());
     }
 
+    public void setGains(FeedForwardSettings.Snapshot feedForwardSettings) {
+        setGains(feedForwardSettings.getkS(), feedForwardSettings.getkV(), feedForwardSettings.getkA(),
+                feedForwardSettings.getkG());
+    }
+
     public double getkS() {
         return kS;
     }
@@ -1,5 +1,6 @@
 package com.spikes2212.control;
 
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -15,6 +16,11 @@ public class FeedForwardSettings {
     public static final FeedForwardSettings EMPTY_FF_SETTINGS = new FeedForwardSettings(
             FeedForwardController.ControlMode.LINEAR_POSITION);
 
+    /**
+     * The number of values in a group of feed forward settings, read by {@link #get(double[])}.
+     */
+    public static final int GROUP_SIZE = 4;
+
     /**
      * The applied control mode.
      */
@@ -40,6 +46,11 @@ public class FeedForwardSettings {
      */
     private Supplier<Double> kG;
 
+    /**
+     * Takes the snapshots of the values.
+     */
+    private final SnapshotTaker<Snapshot> snapshots = new SnapshotTaker<>(GROUP_SIZE, this::get, Snapshot::new);
+
     public FeedForwardSettings(Supplier<Double> kS, Supplier<Double> kV, Supplier<Double> kA, Supplier<Double> kG,
                                FeedForwardController.ControlMode controlMode) {
         this.kS = kS;
@@ -76,12 +87,73 @@ public class FeedForwardSettings {
         this(() -> 0.0, () -> 0.0, () -> 0.0, () -> 0.0, controlMode);
     }
 
+    /**
+     * Creates feed forward settings whose values are all read from a single group, in the order kS, kV, kA and kG.
+     *
+     * @param group       the group of values, with at least {@link #GROUP_SIZE} values
+     * @param controlMode the applied control mode
+     * @return the created settings
+     */
+    public static FeedForwardSettings fromGroup(Supplier<double[]> group,
+                                                FeedForwardController.ControlMode controlMode) {
+        FeedForwardSettings settings = new FeedForwardSettings(() -> group.get()[0], () -> group.get()[1],
+                () -> group.get()[2], () -> group.get()[3], controlMode);
+        settings.snapshots.setGroup(group);
+        return settings;
+    }
+
+    /**
+     * Reads all the values at once, in the order kS, kV, kA and kG. If the settings were created from a group, all
+     * the values are taken from the same version of the group.
+     *
+     * @param values the array to read the values into, with at least {@link #GROUP_SIZE} elements
+     */
+    public void get(double[] values) {
+        if (snapshots.readGroup(values)) return;
+        values[0] = getkS();
+        values[1] = getkV();
+        values[2] = getkA();
+        values[3] = getkG();
+    }
+
+    /**
+     * Takes a snapshot of the current values. If none of the values changed since the last snapshot, the same
+     * snapshot is returned, so a {@link SnapshotTracker} tells whether the values have to be applied again. Nothing
+     * is allocated unless a value changed. Settings given a change count using {@link #withChangeCount(IntSupplier)}
+     * only read their values when the count changes.
+     *
+     * @return the snapshot of the current values
+     */
+    public Snapshot getSnapshot() {
+        return snapshots.getSnapshot();
+    }
+
+    /**
+     * Makes the settings only read their values for a snapshot when the given count changes, such as the total number
+     * of changes of the NetworkTables constants they are read from. Replacing any of the values stops using the count.
+     *
+     * @param changeCount the total number of changes of the values, which must change whenever any of them changes
+     * @return these settings
+     */
+    public FeedForwardSettings withChangeCount(IntSupplier changeCount) {
+        snapshots.setChangeCount(changeCount);
+        return this;
+    }
+
+    /**
+     * @return the current version of the values, which changes whenever any of them changes
+     */
+    public long getVersion() {
+        return getSnapshot().getVersion();
+    }
+
     public double getkS() {
         return kS.get();
     }
 
     public void setkS(Supplier<Double> kS) {
         this.kS = kS;
+        snapshots.valueReplaced();
     }
 
     public double getkV() {
@@ -90,6 +162,7 @@ public class FeedForwardSettings {
 
     public void setkV(Supplier<Double> kV) {
         this.kV = kV;
+        snapshots.valueReplaced();
     }
 
     public double getkA() {
@@ -98,6 +171,7 @@ public class FeedForwardSettings {
 
     public void setkA(Supplier<Double> kA) {
         this.kA = kA;
+        snapshots.valueReplaced();
     }
 
     public double getkG() {
@@ -106,9 +180,36 @@ public class FeedForwardSettings {
 
     public void setkG(Supplier<Double> kG) {
         this.kG = kG;
+        snapshots.valueReplaced();
     }
 
     public FeedForwardController.ControlMode getControlMode() {
         return controlMode;
     }
+
+    /**
+     * An immutable copy of the values of {@link FeedForwardSettings} at a certain time, along with its version.
+     */
+    public static final class Snapshot extends SettingsSnapshot {
+
+        private Snapshot(long version, double[] values) {
+            super(version, values);
+        }
+
+        public double getkS() {
+            return get(0);
+        }
+
+        public double getkV() {
+            return get(1);
+        }
+
+        public double getkA() {
+            return get(2);
+        }
+
+        public double getkG() {
+            return get(3);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.spikes2212.control;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link PIDSettings} whose values change with a scheduling variable, such as the position or velocity of the
+ * mechanism. Each breakpoint of the variable has its own settings, and the settings between breakpoints are
+ * interpolated by an {@link InterpolatingTable}.
+ *
+ * <p>The values are looked up again whenever {@link #update()}, {@link #get(double[])} or {@link #getSnapshot()} is
+ * called, and only if the scheduling variable changed; the single getters return the values of the last lookup. The
+ * settings can therefore be given to anything that takes {@link PIDSettings}, and a command which takes a snapshot
+ * every iteration follows the schedule.
+ * Snapshots stay immutable, and a new one is only allocated when the looked-up values change.</p>
+ */
+public class GainScheduledPIDSettings extends PIDSettings {
+
+    private final Supplier<Double> schedulingVariable;
+    private final InterpolatingTable table;
+
+    /**
+     * The values of the last lookup, in the order of {@link #get(double[])}.
+     */
+    private final double[] scheduledValues;
+
+    /**
+     * The scheduling variable at the last lookup.
+     */
+    private double lastVariable = Double.NaN;
+
+    /**
+     * Constructs gain scheduled settings.
+     *
+     * @param schedulingVariable the Double {@link Supplier} supplying the scheduling variable
+     * @param breakpoints        the values of the scheduling variable the settings are given at, in strictly ascending
+     *                           order
+     * @param values             the settings at every breakpoint, each in the order kP, kI, kD, i zone, tolerance and
+     *                           wait time
+     */
+    public GainScheduledPIDSettings(Supplier<Double> schedulingVariable, double[] breakpoints, double[][] values) {
+        this(schedulingVariable, new InterpolatingTable(breakpoints, values, GROUP_SIZE), new double[GROUP_SIZE]);
+    }
+
+    /**
+     * Constructs gain scheduled settings from the current values of the given settings.
+     *
+     * @param schedulingVariable the Double {@link Supplier} supplying the scheduling variable
+     * @param breakpoints        the values of the scheduling variable the settings are given at, in strictly ascending
+     *                           order
+     * @param settings           the settings at every breakpoint
+     */
+    public GainScheduledPIDSettings(Supplier<Double> schedulingVariable, double[] breakpoints,
+                                    PIDSettings... settings) {
+        this(schedulingVariable, breakpoints, read(settings));
+    }
+
+    private GainScheduledPIDSettings(Supplier<Double> schedulingVariable, InterpolatingTable table,
+                                     double[] scheduledValues) {
+        super(() -> scheduledValues[0], () -> scheduledValues[1], () -> scheduledValues[2],
+                () -> scheduledValues[3], () -> scheduledValues[4], () -> scheduledValues[5]);
+        this.schedulingVariable = schedulingVariable;
+        this.table = table;
+        this.scheduledValues = scheduledValues;
+        update();
+    }
+
+    /**
+     * Looks up the values at the current scheduling variable, if it changed since the last lookup. A NaN variable
+     * keeps the last values.
+     */
+    public void update() {
+        double variable = schedulingVariable.get();
+        if (Double.isNaN(variable) || variable == lastVariable) return;
+        lastVariable = variable;
+        table.lookup(variable, scheduledValues);
+    }
+
+    @Override
+    public void get(double[] values) {
+        update();
+        super.get(values);
+    }
+
+    private static double[][] read(PIDSettings[] settings) {
+        double[][] values = new double[settings.length][GROUP_SIZE];
+        for (int i = 0; i < settings.length; i++) {
+            settings[i].get(values[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spikes2212.control;
+
+/**
+ * A table of rows of values keyed by sorted breakpoints, which linearly interpolates a row for any key between them.
+ * Keys outside the breakpoints get the first or last row.
+ *
+ * <p>The breakpoints and values are copied into primitive arrays when the table is created, and every lookup is a
+ * binary search over them which writes into a given array, so nothing is allocated after construction.</p>
+ */
+public class InterpolatingTable {
+
+    private final double[] breakpoints;
+
+    /**
+     * The rows, one after the other.
+     */
+    private final double[] values;
+
+    private final int width;
+
+    /**
+     * Constructs a table.
+     *
+     * @param breakpoints the keys of the rows, in strictly ascending order
+     * @param rows        the rows, one for each breakpoint, each with at least {@code width} values
+     * @param width       the number of values in a row
+     */
+    public InterpolatingTable(double[] breakpoints, double[][] rows, int width) {
+        if (breakpoints.length == 0) throw new IllegalArgumentException("at least one breakpoint is required");
+        if (rows.length != breakpoints.length) {
+            throw new IllegalArgumentException("there must be one row for every breakpoint");
+        }
+        if (width <= 0) throw new IllegalArgumentException("width must be positive");
+        this.breakpoints = breakpoints.clone();
+        this.values = new double[breakpoints.length * width];
+        this.width = width;
+        for (int i = 0; i < breakpoints.length; i++) {
+            if (i > 0 && !(breakpoints[i] > breakpoints[i - 1])) {
+                throw new IllegalArgumentException("breakpoints must be in strictly ascending order");
+            }
+            if (rows[i].length < width) throw new IllegalArgumentException("row " + i + " is too short");
+            System.arraycopy(rows[i], 0, values, i * width, width);
+        }
+    }
+
+    /**
+     * Interpolates the row at the given key.
+     *
+     * @param key the key to look up, which is not NaN
+     * @param row the array to write the row into, with at least {@link #getWidth()} elements
+     */
+    public void lookup(double key, double[] row) {
+        int last = breakpoints.length - 1;
+        if (key <= breakpoints[0]) {
+            System.arraycopy(values, 0, row, 0, width);
+            return;
+        }
+        if (key >= breakpoints[last]) {
+            System.arraycopy(values, last * width, row, 0, width);
+            return;
+        }
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (breakpoints[middle] <= key) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        double fraction = (key - breakpoints[low]) / (breakpoints[high] - breakpoints[low]);
+        int lowOffset = low * width;
+        int highOffset = high * width;
+        for (int i = 0; i < width; i++) {
+            row[i] = values[lowOffset + i] + fraction * (values[highOffset + i] - values[lowOffset + i]);
+        }
+    }
+
+    /**
+     * @return the number of breakpoints
+     */
+    public int size() {
+        return breakpoints.length;
+    }
+
+    /**
+     * @return the number of values in a row
+     */
+    public int getWidth() {
+        return width;
+    }
+}
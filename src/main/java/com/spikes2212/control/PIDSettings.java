@@ -1,5 +1,6 @@
 package com.spikes2212.control;
 
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -14,6 +15,11 @@ public class PIDSettings {
      */
     public static final PIDSettings EMPTY_PID_SETTINGS = new PIDSettings(0, 0, 0, 0, 0, 0);
 
+    /**
+     * The number of values in a group of PID settings, read by {@link #get(double[])}.
+     */
+    public static final int GROUP_SIZE = 6;
+
     /**
      * the proportional component of the PID settings.
      */
@@ -44,6 +50,11 @@ public class PIDSettings {
      */
     private Supplier<Double> waitTime;
 
+    /**
+     * Takes the snapshots of the values.
+     */
+    private final SnapshotTaker<Snapshot> snapshots = new SnapshotTaker<>(GROUP_SIZE, this::get, Snapshot::new);
+
     public PIDSettings(Supplier<Double> kP, Supplier<Double> kI, Supplier<Double> kD, Supplier<Double> iZone,
                        Supplier<Double> tolerance, Supplier<Double> waitTime) {
         this.kP = kP;
@@ -66,12 +77,74 @@ public class PIDSettings {
         this(kP, () -> 0.0, () -> 0.0, () -> 0.0, tolerance, waitTime);
     }
 
+    /**
+     * Creates PID settings whose values are all read from a single group, in the order kP, kI, kD, i zone, tolerance
+     * and wait time.
+     *
+     * @param group the group of values, with at least {@link #GROUP_SIZE} values
+     * @return the created settings
+     */
+    public static PIDSettings fromGroup(Supplier<double[]> group) {
+        PIDSettings settings = new PIDSettings(() -> group.get()[0], () -> group.get()[1], () -> group.get()[2],
+                () -> group.get()[3], () -> group.get()[4], () -> group.get()[5]);
+        settings.snapshots.setGroup(group);
+        return settings;
+    }
+
+    /**
+     * Reads all the values at once, in the order kP, kI, kD, i zone, tolerance and wait time. If the settings were
+     * created from a group, all the values are taken from the same version of the group.
+     *
+     * @param values the array to read the values into, with at least {@link #GROUP_SIZE} elements
+     */
+    public void get(double[] values) {
+        if (snapshots.readGroup(values)) return;
+        values[0] = getkP();
+        values[1] = getkI();
+        values[2] = getkD();
+        values[3] = getIZone();
+        values[4] = getTolerance();
+        values[5] = getWaitTime();
+    }
+
+    /**
+     * Takes a snapshot of the current values. If none of the values changed since the last snapshot, the same
+     * snapshot is returned, so a {@link SnapshotTracker} tells whether the values have to be applied again. Nothing
+     * is allocated unless a value changed. Settings given a change count using {@link #withChangeCount(IntSupplier)}
+     * only read their values when the count changes.
+     *
+     * @return the snapshot of the current values
+     */
+    public Snapshot getSnapshot() {
+        return snapshots.getSnapshot();
+    }
+
+    /**
+     * Makes the settings only read their values for a snapshot when the given count changes, such as the total number
+     * of changes of the NetworkTables constants they are read from. Replacing any of the values stops using the count.
+     *
+     * @param changeCount the total number of changes of the values, which must change whenever any of them changes
+     * @return these settings
+     */
+    public PIDSettings withChangeCount(IntSupplier changeCount) {
+        snapshots.setChangeCount(changeCount);
+        return this;
+    }
+
+    /**
+     * @return the current version of the values, which changes whenever any of them changes
+     */
+    public long getVersion() {
+        return getSnapshot().getVersion();
+    }
+
     public double getkP() {
         return kP.get();
     }
 
     public void setkP(Supplier<Double> kP) {
         this.kP = kP;
+        snapshots.valueReplaced();
     }
 
     public double getkI() {
@@ -80,6 +153,7 @@ public class PIDSettings {
 
     public void setkI(Supplier<Double> kI) {
         this.kI = kI;
+        snapshots.valueReplaced();
     }
 
     public double getkD() {
@@ -88,6 +162,7 @@ public class PIDSettings {
 
     public void setkD(Supplier<Double> kD) {
         this.kD = kD;
+        snapshots.valueReplaced();
     }
 
     public double getTolerance() {
@@ -96,6 +171,7 @@ public class PIDSettings {
 
     public void setTolerance(Supplier<Double> tolerance) {
         this.tolerance = tolerance;
+        snapshots.valueReplaced();
     }
 
     public double getIZone() {
@@ -104,6 +180,7 @@ public class PIDSettings {
 
     public void setIZone(Supplier<Double> iZone) {
         this.iZone = iZone;
+        snapshots.valueReplaced();
     }
 
     public double getWaitTime() {
@@ -112,5 +189,40 @@ public class PIDSettings {
 
     public void setWaitTime(Supplier<Double> waitTime) {
         this.waitTime = waitTime;
+        snapshots.valueReplaced();
+    }
+
+    /**
+     * An immutable copy of the values of {@link PIDSettings} at a certain time, along with its version.
+     */
+    public static final class Snapshot extends SettingsSnapshot {
+
+        private Snapshot(long version, double[] values) {
+            super(version, values);
+        }
+
+        public double getkP() {
+            return get(0);
+        }
+
+        public double getkI() {
+            return get(1);
+        }
+
+        public double getkD() {
+            return get(2);
+        }
+
+        public double getIZone() {
+            return get(3);
+        }
+
+        public double getTolerance() {
+            return get(4);
+        }
+
+        public double getWaitTime() {
+            return get(5);
+        }
     }
 }
@@ -0,0 +1,138 @@
+package com.spikes2212.control;
+
+import java.util.Arrays;
+
+/**
+ * An incremental least squares solver, which fits the parameters of a linear model one sample at a time.
+ *
+ * <p>The solver keeps only the current estimate and its covariance, so it uses constant memory no matter how many
+ * samples it is given, and {@link #update(double[], double)} does not allocate. An optional forgetting factor below 1
+ * makes older samples weigh less, so the estimate can follow parameters that change over time.</p>
+ */
+public class RecursiveLeastSquares {
+
+    /**
+     * The default initial variance of every parameter, which is large enough for the first samples to dominate it.
+     */
+    public static final double DEFAULT_INITIAL_VARIANCE = 1e6;
+
+    private final int size;
+    private final double forgettingFactor;
+    private final double initialVariance;
+
+    /**
+     * The estimated parameters.
+     */
+    private final double[] parameters;
+
+    /**
+     * The covariance of the estimate, as a row-major square matrix.
+     */
+    private final double[] covariance;
+
+    private final double[] covarianceTimesFeatures;
+    private final double[] gain;
+
+    private long sampleCount;
+
+    /**
+     * Constructs a solver.
+     *
+     * @param size             the number of parameters
+     * @param forgettingFactor the weight of every sample relative to the next one, between 0 (exclusive) and 1
+     * @param initialVariance  the initial variance of every parameter
+     */
+    public RecursiveLeastSquares(int size, double forgettingFactor, double initialVariance) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        if (forgettingFactor <= 0 || forgettingFactor > 1) {
+            throw new IllegalArgumentException("forgetting factor must be in (0, 1]");
+        }
+        this.size = size;
+        this.forgettingFactor = forgettingFactor;
+        this.initialVariance = initialVariance;
+        this.parameters = new double[size];
+        this.covariance = new double[size * size];
+        this.covarianceTimesFeatures = new double[size];
+        this.gain = new double[size];
+        reset();
+    }
+
+    public RecursiveLeastSquares(int size) {
+        this(size, 1, DEFAULT_INITIAL_VARIANCE);
+    }
+
+    /**
+     * Updates the estimate with a sample.
+     *
+     * @param features the sample's features, with {@link #size()} elements
+     * @param output   the sample's output
+     */
+    public void update(double[] features, double output) {
+        double denominator = forgettingFactor;
+        for (int i = 0; i < size; i++) {
+            double sum = 0;
+            for (int j = 0; j < size; j++) {
+                sum += covariance[i * size + j] * features[j];
+            }
+            covarianceTimesFeatures[i] = sum;
+            denominator += features[i] * sum;
+        }
+        double error = output;
+        for (int i = 0; i < size; i++) {
+            gain[i] = covarianceTimesFeatures[i] / denominator;
+            error -= parameters[i] * features[i];
+        }
+        for (int i = 0; i < size; i++) {
+            parameters[i] += gain[i] * error;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                covariance[i * size + j] = (covariance[i * size + j] - gain[i] * covarianceTimesFeatures[j])
+                        / forgettingFactor;
+            }
+        }
+        sampleCount++;
+    }
+
+    /**
+     * Clears the estimate and all the samples.
+     */
+    public void reset() {
+        Arrays.fill(parameters, 0);
+        Arrays.fill(covariance, 0);
+        for (int i = 0; i < size; i++) {
+            covariance[i * size + i] = initialVariance;
+        }
+        sampleCount = 0;
+    }
+
+    /**
+     * @param index the index of the parameter
+     * @return the estimate of the parameter
+     */
+    public double getParameter(int index) {
+        return parameters[index];
+    }
+
+    /**
+     * @param index the index of the parameter
+     * @return the variance of the parameter's estimate
+     */
+    public double getVariance(int index) {
+        return covariance[index * size + index];
+    }
+
+    /**
+     * @return the number of samples given since the solver was last reset
+     */
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @return the number of parameters
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,210 @@
+package com.spikes2212.control;
+
+/**
+ * Finds PID gains for a mechanism by making it oscillate around a setpoint with a relay (bang-bang) controller.
+ *
+ * <p>The relay moves the mechanism with a constant positive output while it is below the setpoint and a constant
+ * negative output while it is above it, with a hysteresis band against noise. After the first cycle, the period and
+ * amplitude of every cycle are recorded in preallocated arrays. Once enough cycles were recorded, their means give
+ * the ultimate gain {@code Ku = 4 * relayOutput / (pi * sqrt(amplitude^2 - hysteresis^2))} and the ultimate period
+ * {@code Tu}, from which a {@link TuningRule} calculates the gains.</p>
+ *
+ * <p>The tuner does not depend on a clock or any hardware, so it can be run against a simulated plant.</p>
+ */
+public class RelayAutoTuner {
+
+    /**
+     * A rule which calculates PID gains from the ultimate gain and period. The proportional gain is a factor of the
+     * ultimate gain, and the integral and derivative times are factors of the ultimate period.
+     */
+    public enum TuningRule {
+
+        ZIEGLER_NICHOLS(0.6, 0.5, 0.125),
+        ZIEGLER_NICHOLS_PI(0.45, 1 / 1.2, 0),
+        ZIEGLER_NICHOLS_NO_OVERSHOOT(0.2, 0.5, 1.0 / 3),
+        TYREUS_LUYBEN(1 / 2.2, 2.2, 1 / 6.3),
+        TYREUS_LUYBEN_PI(1 / 3.2, 2.2, 0);
+
+        private final double proportionalFactor;
+        private final double integralTimeFactor;
+        private final double derivativeTimeFactor;
+
+        TuningRule(double proportionalFactor, double integralTimeFactor, double derivativeTimeFactor) {
+            this.proportionalFactor = proportionalFactor;
+            this.integralTimeFactor = integralTimeFactor;
+            this.derivativeTimeFactor = derivativeTimeFactor;
+        }
+
+        public double getkP(double ultimateGain) {
+            return proportionalFactor * ultimateGain;
+        }
+
+        public double getkI(double ultimateGain, double ultimatePeriod) {
+            return getkP(ultimateGain) / (integralTimeFactor * ultimatePeriod);
+        }
+
+        public double getkD(double ultimateGain, double ultimatePeriod) {
+            return getkP(ultimateGain) * derivativeTimeFactor * ultimatePeriod;
+        }
+    }
+
+    /**
+     * The default number of cycles recorded.
+     */
+    public static final int DEFAULT_CYCLES = 5;
+
+    private final double setpoint;
+    private final double relayOutput;
+    private final double hysteresis;
+
+    /**
+     * The periods of the recorded cycles, in seconds.
+     */
+    private final double[] periods;
+
+    /**
+     * The amplitudes of the recorded cycles.
+     */
+    private final double[] amplitudes;
+
+    private int recordedCycles;
+    private boolean high;
+    private boolean started;
+    private double cycleStartTime;
+    private double cycleMax;
+    private double cycleMin;
+
+    /**
+     * Whether a whole cycle has passed since the relay first switched up, so the next cycle is not a transient.
+     */
+    private boolean settled;
+
+    /**
+     * Constructs a tuner.
+     *
+     * @param setpoint    the setpoint to oscillate around
+     * @param relayOutput the magnitude of the relay's output
+     * @param hysteresis  the distance from the setpoint the measurement has to cross before the relay switches
+     * @param cycles      the number of cycles to record
+     */
+    public RelayAutoTuner(double setpoint, double relayOutput, double hysteresis, int cycles) {
+        if (relayOutput <= 0) throw new IllegalArgumentException("relay output must be positive");
+        if (hysteresis < 0) throw new IllegalArgumentException("hysteresis must not be negative");
+        if (cycles <= 0) throw new IllegalArgumentException("cycles must be positive");
+        this.setpoint = setpoint;
+        this.relayOutput = relayOutput;
+        this.hysteresis = hysteresis;
+        this.periods = new double[cycles];
+        this.amplitudes = new double[cycles];
+        reset();
+    }
+
+    public RelayAutoTuner(double setpoint, double relayOutput, double hysteresis) {
+        this(setpoint, relayOutput, hysteresis, DEFAULT_CYCLES);
+    }
+
+    /**
+     * Clears all the recorded cycles.
+     */
+    public void reset() {
+        recordedCycles = 0;
+        started = false;
+        settled = false;
+        high = false;
+        cycleMax = Double.NEGATIVE_INFINITY;
+        cycleMin = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Feeds a measurement and calculates the relay's output. Should be called periodically until the tuner is
+     * finished.
+     *
+     * @param measurement the current state
+     * @param time        the current time, in seconds
+     * @return the output to move the mechanism with
+     */
+    public double update(double measurement, double time) {
+        if (isFinished()) return 0;
+        cycleMax = Math.max(cycleMax, measurement);
+        cycleMin = Math.min(cycleMin, measurement);
+        double error = setpoint - measurement;
+        if (!high && error > hysteresis) {
+            high = true;
+            onCycleStart(time);
+        } else if (high && error < -hysteresis) {
+            high = false;
+        }
+        return high ? relayOutput : -relayOutput;
+    }
+
+    /**
+     * @return whether all the cycles were recorded
+     */
+    public boolean isFinished() {
+        return recordedCycles == periods.length;
+    }
+
+    /**
+     * @return the number of cycles recorded so far
+     */
+    public int getRecordedCycles() {
+        return recordedCycles;
+    }
+
+    /**
+     * @return the ultimate gain, from the cycles recorded so far
+     */
+    public double getUltimateGain() {
+        double amplitude = mean(amplitudes);
+        double effectiveAmplitude = amplitude > hysteresis ?
+                Math.sqrt(amplitude * amplitude - hysteresis * hysteresis) : amplitude;
+        return 4 * relayOutput / (Math.PI * effectiveAmplitude);
+    }
+
+    /**
+     * @return the ultimate period in seconds, from the cycles recorded so far
+     */
+    public double getUltimatePeriod() {
+        return mean(periods);
+    }
+
+    /**
+     * Calculates PID settings from the recorded cycles.
+     *
+     * @param rule      the rule to calculate the gains with
+     * @param iZone     the i zone of the settings
+     * @param tolerance the tolerance of the settings
+     * @param waitTime  the wait time of the settings
+     * @return the calculated settings
+     * @throws IllegalStateException if no cycle was recorded yet
+     */
+    public PIDSettings getResult(TuningRule rule, double iZone, double tolerance, double waitTime) {
+        if (recordedCycles == 0) throw new IllegalStateException("no oscillation cycle was recorded yet");
+        double ultimateGain = getUltimateGain();
+        double ultimatePeriod = getUltimatePeriod();
+        return new PIDSettings(rule.getkP(ultimateGain), rule.getkI(ultimateGain, ultimatePeriod),
+                rule.getkD(ultimateGain, ultimatePeriod), iZone, tolerance, waitTime);
+    }
+
+    private void onCycleStart(double time) {
+        if (started && settled) {
+            periods[recordedCycles] = time - cycleStartTime;
+            amplitudes[recordedCycles] = (cycleMax - cycleMin) / 2;
+            recordedCycles++;
+        }
+        settled = started;
+        started = true;
+        cycleStartTime = time;
+        cycleMax = Double.NEGATIVE_INFINITY;
+        cycleMin = Double.POSITIVE_INFINITY;
+    }
+
+    private double mean(double[] values) {
+        if (recordedCycles == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < recordedCycles; i++) {
+            sum += values[i];
+        }
+        return sum / recordedCycles;
+    }
+}
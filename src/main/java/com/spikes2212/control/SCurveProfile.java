@@ -0,0 +1,262 @@
+package com.spikes2212.control;
+
+/**
+ * A jerk-limited (S-curve) motion profile from rest to rest.
+ *
+ * <p>The profile has seven segments: the acceleration ramps up at the maximal jerk, holds at the maximal acceleration,
+ * and ramps down until the velocity reaches its peak, then cruises and mirrors all that to stop at the goal. Segments
+ * that are not needed for a short move are dropped and the peak velocity and acceleration are lowered instead. A
+ * maximal jerk of 0 means unlimited jerk, which makes the profile trapezoidal.</p>
+ *
+ * <p>{@link #set} precomputes the state at the start of every segment, so {@link #calculate(double)} finds the state
+ * at any time in constant time. Neither of them allocates; the calculated state is read through the getters.</p>
+ */
+public class SCurveProfile {
+
+    private static final int SEGMENTS = 7;
+
+    /**
+     * The time every segment starts at, with the end of the profile at the last index.
+     */
+    private final double[] startTimes = new double[SEGMENTS + 1];
+
+    /**
+     * The position, velocity and acceleration at the start of every segment, relative to the start of the profile
+     * and in the direction of the goal.
+     */
+    private final double[] startPositions = new double[SEGMENTS];
+    private final double[] startVelocities = new double[SEGMENTS];
+    private final double[] startAccelerations = new double[SEGMENTS];
+
+    /**
+     * The jerk during every segment, in the direction of the goal.
+     */
+    private final double[] jerks = new double[SEGMENTS];
+
+    private double start;
+    private double goal;
+    private double direction;
+
+    private double position;
+    private double velocity;
+    private double acceleration;
+
+    /**
+     * Plans a profile from rest at the start to rest at the goal. If the maximal velocity or acceleration is not
+     * positive, the profile jumps straight to the goal.
+     *
+     * @param start           the starting position
+     * @param goal            the goal position
+     * @param maxVelocity     the maximal velocity
+     * @param maxAcceleration the maximal acceleration
+     * @param maxJerk         the maximal jerk, or 0 for unlimited jerk
+     */
+    public void set(double start, double goal, double maxVelocity, double maxAcceleration, double maxJerk) {
+        this.start = start;
+        this.goal = goal;
+        this.direction = Math.signum(goal - start);
+        double distance = Math.abs(goal - start);
+        if (distance == 0 || maxVelocity <= 0 || maxAcceleration <= 0) {
+            plan(0, 0, 0, 0, 0);
+            calculate(0);
+            return;
+        }
+        double jerk = maxJerk > 0 ? maxJerk : Double.POSITIVE_INFINITY;
+
+        double peakVelocity = maxVelocity;
+        double cruiseTime;
+        double accelerationDistance = peakVelocity * accelerationTime(peakVelocity, maxAcceleration, jerk);
+        if (accelerationDistance <= distance) {
+            cruiseTime = (distance - accelerationDistance) / peakVelocity;
+        } else {
+            cruiseTime = 0;
+            if (Double.isInfinite(jerk)) {
+                peakVelocity = Math.sqrt(distance * maxAcceleration);
+            } else {
+                double ratio = maxAcceleration / jerk;
+                peakVelocity = maxAcceleration * (-ratio + Math.sqrt(ratio * ratio + 4 * distance / maxAcceleration))
+                        / 2;
+                if (peakVelocity * jerk < maxAcceleration * maxAcceleration) {
+                    peakVelocity = Math.pow(distance * Math.sqrt(jerk) / 2, 2.0 / 3);
+                }
+            }
+        }
+
+        double jerkTime;
+        double peakAcceleration;
+        double constantAccelerationTime;
+        if (Double.isInfinite(jerk)) {
+            jerkTime = 0;
+            peakAcceleration = maxAcceleration;
+            constantAccelerationTime = peakVelocity / maxAcceleration;
+        } else if (peakVelocity * jerk >= maxAcceleration * maxAcceleration) {
+            jerkTime = maxAcceleration / jerk;
+            peakAcceleration = maxAcceleration;
+            constantAccelerationTime = peakVelocity / maxAcceleration - jerkTime;
+        } else {
+            jerkTime = Math.sqrt(peakVelocity / jerk);
+            peakAcceleration = jerk * jerkTime;
+            constantAccelerationTime = 0;
+        }
+        plan(jerkTime, constantAccelerationTime, cruiseTime, peakAcceleration,
+                Double.isInfinite(jerk) ? 0 : jerk);
+        calculate(0);
+    }
+
+    /**
+     * Plans a profile from rest at the start to rest at the goal, with the constraints of the given settings. The
+     * settings' curve is used as the maximal jerk.
+     *
+     * @param start    the starting position
+     * @param goal     the goal position
+     * @param settings the constraints of the profile
+     */
+    public void set(double start, double goal, TrapezoidProfileSettings.Snapshot settings) {
+        set(start, goal, settings.getMaxVelocity(), settings.getMaxAcceleration(), settings.getCurve());
+    }
+
+    /**
+     * Copies the plan of another profile, without planning it again. Nothing is allocated.
+     *
+     * @param other the profile to copy
+     */
+    public void copyFrom(SCurveProfile other) {
+        copyFrom(other, other.start, other.goal);
+    }
+
+    /**
+     * Copies the plan of another profile to a nearby start and goal, without planning it again. The plan is moved to
+     * the new start, and the profile ends at the new goal, so the two should be about as far apart as in the other
+     * profile. Nothing is allocated.
+     *
+     * @param other the profile to copy
+     * @param start the new starting position
+     * @param goal  the new goal position
+     */
+    public void copyFrom(SCurveProfile other, double start, double goal) {
+        System.arraycopy(other.startTimes, 0, startTimes, 0, startTimes.length);
+        System.arraycopy(other.startPositions, 0, startPositions, 0, SEGMENTS);
+        System.arraycopy(other.startVelocities, 0, startVelocities, 0, SEGMENTS);
+        System.arraycopy(other.startAccelerations, 0, startAccelerations, 0, SEGMENTS);
+        System.arraycopy(other.jerks, 0, jerks, 0, SEGMENTS);
+        this.start = start;
+        this.goal = goal;
+        direction = other.direction;
+        calculate(0);
+    }
+
+    /**
+     * Calculates the state of the profile at the given time, which can then be read through the getters.
+     *
+     * @param time the time since the start of the profile, in seconds
+     */
+    public void calculate(double time) {
+        if (time >= startTimes[SEGMENTS]) {
+            position = goal;
+            velocity = 0;
+            acceleration = 0;
+            return;
+        }
+        if (time < 0) time = 0;
+        int segment = 0;
+        while (segment < SEGMENTS - 1 && time >= startTimes[segment + 1]) {
+            segment++;
+        }
+        double t = time - startTimes[segment];
+        double a = startAccelerations[segment];
+        double v = startVelocities[segment];
+        double j = jerks[segment];
+        position = start + direction * (startPositions[segment] + v * t + a * t * t / 2 + j * t * t * t / 6);
+        velocity = direction * (v + a * t + j * t * t / 2);
+        acceleration = direction * (a + j * t);
+    }
+
+    /**
+     * @return the position calculated by the last call to {@link #calculate(double)}
+     */
+    public double getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the velocity calculated by the last call to {@link #calculate(double)}
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * @return the acceleration calculated by the last call to {@link #calculate(double)}
+     */
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * @return the time the profile takes, in seconds
+     */
+    public double getTotalTime() {
+        return startTimes[SEGMENTS];
+    }
+
+    /**
+     * @param time the time since the start of the profile, in seconds
+     * @return whether the profile reached the goal by the given time
+     */
+    public boolean isFinished(double time) {
+        return time >= startTimes[SEGMENTS];
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getGoal() {
+        return goal;
+    }
+
+    /**
+     * @return the time it takes to accelerate from rest to the given velocity
+     */
+    private static double accelerationTime(double velocity, double maxAcceleration, double jerk) {
+        if (Double.isInfinite(jerk)) return velocity / maxAcceleration;
+        if (velocity * jerk >= maxAcceleration * maxAcceleration) {
+            return velocity / maxAcceleration + maxAcceleration / jerk;
+        }
+        return 2 * Math.sqrt(velocity / jerk);
+    }
+
+    /**
+     * Fills the segments' start times and states.
+     */
+    private void plan(double jerkTime, double constantAccelerationTime, double cruiseTime, double peakAcceleration,
+                      double jerk) {
+        double p = 0;
+        double v = 0;
+        startTimes[0] = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            double a = switch (i) {
+                case 1, 2 -> peakAcceleration;
+                case 5, 6 -> -peakAcceleration;
+                default -> 0;
+            };
+            double j = switch (i) {
+                case 0, 6 -> jerk;
+                case 2, 4 -> -jerk;
+                default -> 0;
+            };
+            startPositions[i] = p;
+            startVelocities[i] = v;
+            startAccelerations[i] = a;
+            jerks[i] = j;
+            double t = switch (i) {
+                case 1, 5 -> constantAccelerationTime;
+                case 3 -> cruiseTime;
+                default -> jerkTime;
+            };
+            p += v * t + a * t * t / 2 + j * t * t * t / 6;
+            v += a * t + j * t * t / 2;
+            startTimes[i + 1] = startTimes[i] + t;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.spikes2212.control;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of planned {@link SCurveProfile}s, which evicts the least recently used profile once it is full.
+ *
+ * <p>Profiles are keyed by their start and goal, rounded to a resolution, and by the exact values of their
+ * {@link TrapezoidProfileSettings}. A move whose start and goal fall in the same resolution step as a cached one reuses
+ * its plan from the actual start, so it may end up to a resolution step away from the goal before it settles on it.
+ * The resolution should therefore be small compared to the tolerance of the PID controller. Known moves can be
+ * planned ahead of time with {@link #warmUp(List)}, for example in {@code robotInit}.</p>
+ *
+ * <p>The cache can be shared by several commands; its methods are synchronized.</p>
+ */
+public class SCurveProfileCache {
+
+    /**
+     * A move to plan ahead of time.
+     */
+    public static final class Move {
+
+        private final double start;
+        private final double goal;
+        private final TrapezoidProfileSettings settings;
+
+        public Move(double start, double goal, TrapezoidProfileSettings settings) {
+            this.start = start;
+            this.goal = goal;
+            this.settings = settings;
+        }
+
+        public double getStart() {
+            return start;
+        }
+
+        public double getGoal() {
+            return goal;
+        }
+
+        public TrapezoidProfileSettings getSettings() {
+            return settings;
+        }
+    }
+
+    /**
+     * The default capacity of the cache.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int capacity;
+    private final double resolution;
+    private final Map<Key, SCurveProfile> profiles;
+
+    /**
+     * A key reused for lookups, so a hit does not allocate.
+     */
+    private final Key lookupKey = new Key();
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity   the largest number of profiles kept
+     * @param resolution the step the start and goal are rounded to
+     */
+    public SCurveProfileCache(int capacity, double resolution) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        if (resolution <= 0) throw new IllegalArgumentException("resolution must be positive");
+        this.capacity = capacity;
+        this.resolution = resolution;
+        this.profiles = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SCurveProfile> eldest) {
+                return size() > SCurveProfileCache.this.capacity;
+            }
+        };
+    }
+
+    public SCurveProfileCache(double resolution) {
+        this(DEFAULT_CAPACITY, resolution);
+    }
+
+    /**
+     * Plans the given profile, copying the plan of a cached profile if there is one, or planning it and caching the
+     * plan otherwise.
+     *
+     * @param profile  the profile to plan
+     * @param start    the starting position
+     * @param goal     the goal position
+     * @param settings the constraints of the profile
+     * @return whether a cached plan was used
+     */
+    public synchronized boolean plan(SCurveProfile profile, double start, double goal,
+                                     TrapezoidProfileSettings.Snapshot settings) {
+        lookupKey.set(quantize(start), quantize(goal), settings);
+        SCurveProfile cached = profiles.get(lookupKey);
+        if (cached != null) {
+            hits++;
+            profile.copyFrom(cached, start, goal);
+            return true;
+        }
+        misses++;
+        profile.set(start, goal, settings);
+        SCurveProfile copy = new SCurveProfile();
+        copy.copyFrom(profile);
+        profiles.put(lookupKey.copy(), copy);
+        return false;
+    }
+
+    /**
+     * Plans the given moves and caches them, without counting hits or misses.
+     *
+     * @param moves the moves to plan
+     */
+    public synchronized void warmUp(List<Move> moves) {
+        for (Move move : moves) {
+            warmUp(move.getStart(), move.getGoal(), move.getSettings());
+        }
+    }
+
+    /**
+     * Plans the given move and caches it, without counting a hit or a miss.
+     *
+     * @param start    the starting position
+     * @param goal     the goal position
+     * @param settings the constraints of the profile
+     */
+    public synchronized void warmUp(double start, double goal, TrapezoidProfileSettings settings) {
+        TrapezoidProfileSettings.Snapshot snapshot = settings.getSnapshot();
+        lookupKey.set(quantize(start), quantize(goal), snapshot);
+        if (profiles.containsKey(lookupKey)) return;
+        SCurveProfile profile = new SCurveProfile();
+        profile.set(start, goal, snapshot);
+        profiles.put(lookupKey.copy(), profile);
+    }
+
+    /**
+     * Removes all the cached profiles and resets the hit and miss counts.
+     */
+    public synchronized void clear() {
+        profiles.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * @return the number of times a cached plan was used
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of times a profile had to be planned
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of cached profiles
+     */
+    public synchronized int size() {
+        return profiles.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getResolution() {
+        return resolution;
+    }
+
+    private long quantize(double position) {
+        return Math.round(position / resolution);
+    }
+
+    /**
+     * The rounded start and goal and the exact constraints of a profile.
+     */
+    private static final class Key {
+
+        private long start;
+        private long goal;
+        private long maxAcceleration;
+        private long maxVelocity;
+        private long curve;
+
+        void set(long start, long goal, TrapezoidProfileSettings.Snapshot settings) {
+            this.start = start;
+            this.goal = goal;
+            this.maxAcceleration = Double.doubleToLongBits(settings.getMaxAcceleration());
+            this.maxVelocity = Double.doubleToLongBits(settings.getMaxVelocity());
+            this.curve = Double.doubleToLongBits(settings.getCurve());
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.start = start;
+            key.goal = goal;
+            key.maxAcceleration = maxAcceleration;
+            key.maxVelocity = maxVelocity;
+            key.curve = curve;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return start == other.start && goal == other.goal && maxAcceleration == other.maxAcceleration
+                    && maxVelocity == other.maxVelocity && curve == other.curve;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(start);
+            hash = 31 * hash + Long.hashCode(goal);
+            hash = 31 * hash + Long.hashCode(maxAcceleration);
+            hash = 31 * hash + Long.hashCode(maxVelocity);
+            return 31 * hash + Long.hashCode(curve);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.spikes2212.control;
+
+/**
+ * An immutable copy of the values of a set of settings at a certain time, along with its version. The values are
+ * kept in the order the settings read them in.
+ */
+public abstract class SettingsSnapshot {
+
+    /**
+     * The version of the settings this snapshot was taken at.
+     */
+    private final long version;
+
+    private final double[] values;
+
+    protected SettingsSnapshot(long version, double[] values) {
+        this.version = version;
+        this.values = values.clone();
+    }
+
+    /**
+     * @return the version of the settings this snapshot was taken at, which changes whenever any of the values
+     * changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param index the index of the value, in the order the settings read them in
+     * @return the value
+     */
+    protected double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param values the values to compare to, in the order the settings read them in
+     * @return whether all the values are bitwise identical to the snapshot's values, so {@code NaN}s match
+     */
+    boolean matches(double[] values) {
+        for (int i = 0; i < this.values.length; i++) {
+            if (Double.doubleToLongBits(this.values[i]) != Double.doubleToLongBits(values[i])) return false;
+        }
+        return true;
+    }
+}
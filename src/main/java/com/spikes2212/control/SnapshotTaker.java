@@ -0,0 +1,145 @@
+package com.spikes2212.control;
+
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Takes the snapshots of a set of settings. The settings classes delegate to it the versioning of their snapshots and
+ * the checks that skip reading unchanged values, either by a group they are read from together or by a change count.
+ *
+ * @param <S> the type of the snapshots
+ */
+final class SnapshotTaker<S extends SettingsSnapshot> {
+
+    /**
+     * Creates a snapshot of a set of settings.
+     *
+     * @param <S> the type of the snapshots
+     */
+    @FunctionalInterface
+    interface Factory<S> {
+
+        /**
+         * @param version the version of the snapshot
+         * @param values  the values, which are copied by the snapshot
+         * @return the new snapshot
+         */
+        S create(long version, double[] values);
+    }
+
+    /**
+     * Reads all the values of the settings at once.
+     */
+    private final Consumer<double[]> reader;
+
+    private final Factory<S> factory;
+
+    /**
+     * A buffer for reading the values when taking a snapshot.
+     */
+    private final double[] values;
+
+    /**
+     * The group all the values are read from together, or {@code null} if they are read separately.
+     */
+    private Supplier<double[]> group;
+
+    /**
+     * The group the last snapshot was read from.
+     */
+    private double[] lastGroup;
+
+    /**
+     * The total number of changes of the values, or {@code null} if the values have to be read to tell whether they
+     * changed.
+     */
+    private IntSupplier changeCount;
+
+    /**
+     * The change count the last snapshot was read at.
+     */
+    private int lastChangeCount;
+
+    /**
+     * The last snapshot taken, or {@code null} if none was taken yet.
+     */
+    private S snapshot;
+
+    /**
+     * The version of the last snapshot taken.
+     */
+    private long version;
+
+    /**
+     * @param size    the number of values of the settings
+     * @param reader  reads all the values of the settings at once
+     * @param factory creates the snapshots
+     */
+    SnapshotTaker(int size, Consumer<double[]> reader, Factory<S> factory) {
+        this.reader = reader;
+        this.factory = factory;
+        this.values = new double[size];
+    }
+
+    /**
+     * Makes the values be read from the given group, which is replaced whenever any of them changes.
+     *
+     * @param group the group of values
+     */
+    void setGroup(Supplier<double[]> group) {
+        this.group = group;
+    }
+
+    /**
+     * Reads the values from the group, if there is one.
+     *
+     * @param values the array to read the values into
+     * @return whether the values were read from the group
+     */
+    boolean readGroup(double[] values) {
+        if (group == null) return false;
+        System.arraycopy(group.get(), 0, values, 0, this.values.length);
+        return true;
+    }
+
+    /**
+     * Makes the values only be read when the given count changes.
+     *
+     * @param changeCount the total number of changes of the values
+     */
+    void setChangeCount(IntSupplier changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    /**
+     * Stops reading the values from the group and using the change count, since one of the values was replaced.
+     */
+    void valueReplaced() {
+        group = null;
+        changeCount = null;
+    }
+
+    /**
+     * @return the last snapshot, if none of the values changed since it was taken, or a new snapshot otherwise
+     */
+    S getSnapshot() {
+        if (group != null) {
+            double[] current = group.get();
+            if (snapshot != null && current == lastGroup) return snapshot;
+            lastGroup = current;
+            System.arraycopy(current, 0, values, 0, values.length);
+        } else if (changeCount != null) {
+            int count = changeCount.getAsInt();
+            if (snapshot != null && count == lastChangeCount) return snapshot;
+            lastChangeCount = count;
+            reader.accept(values);
+        } else {
+            reader.accept(values);
+        }
+        if (snapshot == null || !snapshot.matches(values)) {
+            snapshot = factory.create(++version, values);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,33 @@
+package com.spikes2212.control;
+
+/**
+ * Tracks the snapshot of a set of settings that was last applied, to tell whether a newer snapshot has to be applied.
+ * Since settings return the same snapshot as long as their values don't change, a different snapshot always means
+ * different values.
+ *
+ * @param <S> the type of the snapshots
+ */
+public class SnapshotTracker<S extends SettingsSnapshot> {
+
+    /**
+     * The last snapshot given to {@link #changed(SettingsSnapshot)}, or {@code null} if there is none.
+     */
+    private S last;
+
+    /**
+     * @param snapshot the current snapshot of the settings
+     * @return whether the snapshot is different from the last one given, which it then replaces
+     */
+    public boolean changed(S snapshot) {
+        if (snapshot == last) return false;
+        last = snapshot;
+        return true;
+    }
+
+    /**
+     * Forgets the last snapshot, so the next one is considered changed.
+     */
+    public void reset() {
+        last = null;
+    }
+}
@@ -0,0 +1,302 @@
+package com.spikes2212.control;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A PID controller that measures the real time between calculations instead of assuming a fixed period.
+ *
+ * <p>The derivative is taken on the measurement rather than on the error, so setpoint changes do not cause output
+ * spikes, and it is passed through a first order low pass filter. The integral is accumulated with the integral gain
+ * already applied, so changing kI does not make the output jump, and it is clamped to a configurable range. All the
+ * state is kept in primitive fields, so {@link #calculate(double, double)} does not allocate.</p>
+ */
+public class SpikesPIDController {
+
+    /**
+     * The period assumed on the first calculation and after long pauses, in seconds.
+     */
+    public static final double DEFAULT_PERIOD = 0.02;
+
+    /**
+     * The longest time between two calculations that is still considered continuous, in seconds. Longer gaps, such
+     * as a disabled period, are treated as a single {@link #DEFAULT_PERIOD}.
+     */
+    public static final double MAX_PERIOD = 0.25;
+
+    /**
+     * The monotonic clock used to measure the time between calculations, in seconds.
+     */
+    private final DoubleSupplier clock;
+
+    private double kP;
+    private double kI;
+    private double kD;
+
+    /**
+     * The distance from the setpoint within which the integral is accumulated. Outside it the integral is reset.
+     */
+    private double iZone = Double.POSITIVE_INFINITY;
+
+    /**
+     * The acceptable distance from the setpoint.
+     */
+    private double tolerance;
+
+    /**
+     * The time constant of the derivative's low pass filter, in seconds, or 0 for no filtering.
+     */
+    private double derivativeFilterTime;
+
+    /**
+     * The range of the integral's contribution to the output.
+     */
+    private double minIntegral = -1;
+    private double maxIntegral = 1;
+
+    private boolean continuous;
+    private double minInput;
+    private double maxInput;
+
+    /**
+     * The integral's contribution to the output, with kI already applied.
+     */
+    private double integral;
+
+    /**
+     * The filtered rate of change of the measurement, per second.
+     */
+    private double derivative;
+
+    private double error;
+    private double lastMeasurement;
+    private double lastTime;
+    private double lastPeriod;
+    private boolean hasLastMeasurement;
+
+    /**
+     * Constructs a controller which measures time with the FPGA clock.
+     */
+    public SpikesPIDController() {
+        this(Timer::getFPGATimestamp);
+    }
+
+    /**
+     * Constructs a controller which measures time with the given clock, such as a simulated one.
+     *
+     * @param clock a monotonic clock, in seconds
+     */
+    public SpikesPIDController(DoubleSupplier clock) {
+        this.clock = clock;
+    }
+
+    public SpikesPIDController(double kP, double kI, double kD) {
+        this();
+        setPID(kP, kI, kD);
+    }
+
+    /**
+     * Calculates the output, measuring the time since the last calculation.
+     *
+     * @param measurement the current state
+     * @param setpoint    the desired state
+     * @return the desired output
+     */
+    public double calculate(double measurement, double setpoint) {
+        double now = clock.getAsDouble();
+        double period = hasLastMeasurement ? now - lastTime : DEFAULT_PERIOD;
+        lastTime = now;
+        return calculate(measurement, setpoint, period);
+    }
+
+    /**
+     * Calculates the output over a known period.
+     *
+     * @param measurement the current state
+     * @param setpoint    the desired state
+     * @param period      the time since the last calculation, in seconds
+     * @return the desired output
+     */
+    public double calculate(double measurement, double setpoint, double period) {
+        if (!(period > 0) || period > MAX_PERIOD) period = DEFAULT_PERIOD;
+        lastPeriod = period;
+        if (continuous) {
+            double halfRange = (maxInput - minInput) / 2;
+            error = MathUtil.inputModulus(setpoint - measurement, -halfRange, halfRange);
+        } else {
+            error = setpoint - measurement;
+        }
+
+        if (Math.abs(error) > iZone) {
+            integral = 0;
+        } else if (kI != 0) {
+            integral = MathUtil.clamp(integral + kI * error * period, minIntegral, maxIntegral);
+        }
+
+        if (hasLastMeasurement) {
+            double change = measurement - lastMeasurement;
+            if (continuous) {
+                double halfRange = (maxInput - minInput) / 2;
+                change = MathUtil.inputModulus(change, -halfRange, halfRange);
+            }
+            double rate = change / period;
+            derivative += (rate - derivative) * period / (derivativeFilterTime + period);
+        }
+        lastMeasurement = measurement;
+        hasLastMeasurement = true;
+
+        return kP * error + integral - kD * derivative;
+    }
+
+    /**
+     * Clears the integral and the derivative. The next calculation is treated as the first one.
+     */
+    public void reset() {
+        integral = 0;
+        derivative = 0;
+        error = 0;
+        hasLastMeasurement = false;
+    }
+
+    /**
+     * @return whether the last calculated error was within the tolerance
+     */
+    public boolean atSetpoint() {
+        return hasLastMeasurement && Math.abs(error) <= tolerance;
+    }
+
+    public void setPID(double kP, double kI, double kD) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+    }
+
+    /**
+     * Applies the gains, i zone and tolerance of the given settings.
+     *
+     * @param settings the settings to apply
+     */
+    public void setSettings(PIDSettings.Snapshot settings) {
+        setPID(settings.getkP(), settings.getkI(), settings.getkD());
+        setIZone(settings.getIZone());
+        setTolerance(settings.getTolerance());
+    }
+
+    public double getkP() {
+        return kP;
+    }
+
+    public void setkP(double kP) {
+        this.kP = kP;
+    }
+
+    public double getkI() {
+        return kI;
+    }
+
+    public void setkI(double kI) {
+        this.kI = kI;
+    }
+
+    public double getkD() {
+        return kD;
+    }
+
+    public void setkD(double kD) {
+        this.kD = kD;
+    }
+
+    public double getIZone() {
+        return iZone;
+    }
+
+    /**
+     * @param iZone the distance from the setpoint within which the integral is accumulated, which must not be negative
+     */
+    public void setIZone(double iZone) {
+        if (iZone < 0) throw new IllegalArgumentException("i zone must not be negative");
+        this.iZone = iZone;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getDerivativeFilterTime() {
+        return derivativeFilterTime;
+    }
+
+    /**
+     * @param derivativeFilterTime the time constant of the derivative's low pass filter in seconds, or 0 for no
+     *                             filtering
+     */
+    public void setDerivativeFilterTime(double derivativeFilterTime) {
+        if (derivativeFilterTime < 0) throw new IllegalArgumentException("filter time must not be negative");
+        this.derivativeFilterTime = derivativeFilterTime;
+    }
+
+    /**
+     * Sets the range of the integral's contribution to the output.
+     *
+     * @param minIntegral the minimal contribution
+     * @param maxIntegral the maximal contribution
+     */
+    public void setIntegratorRange(double minIntegral, double maxIntegral) {
+        if (minIntegral > maxIntegral) throw new IllegalArgumentException("min integral is greater than max integral");
+        this.minIntegral = minIntegral;
+        this.maxIntegral = maxIntegral;
+        integral = MathUtil.clamp(integral, minIntegral, maxIntegral);
+    }
+
+    /**
+     * Makes the controller treat its input as a continuous range, such as an angle, so it always takes the shortest
+     * way to the setpoint.
+     *
+     * @param minInput the minimal value of the input
+     * @param maxInput the maximal value of the input, which is equivalent to the minimal one
+     */
+    public void enableContinuousInput(double minInput, double maxInput) {
+        if (minInput >= maxInput) throw new IllegalArgumentException("min input must be less than max input");
+        this.continuous = true;
+        this.minInput = minInput;
+        this.maxInput = maxInput;
+    }
+
+    public void disableContinuousInput() {
+        continuous = false;
+    }
+
+    /**
+     * @return the error of the last calculation
+     */
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * @return the integral's contribution to the output on the last calculation
+     */
+    public double getIntegral() {
+        return integral;
+    }
+
+    /**
+     * @return the filtered rate of change of the measurement on the last calculation, per second
+     */
+    public double getDerivative() {
+        return derivative;
+    }
+
+    /**
+     * @return the time between the last two calculations, in seconds
+     */
+    public double getLastPeriod() {
+        return lastPeriod;
+    }
+}
@@ -0,0 +1,254 @@
+package com.spikes2212.control;
+
+import edu.wpi.first.math.MatBuilder;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.controller.LinearQuadraticRegulator;
+import edu.wpi.first.math.estimator.KalmanFilter;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.system.LinearSystem;
+import edu.wpi.first.math.system.LinearSystemLoop;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+
+/**
+ * A state-space controller, which models a mechanism from the kV and kA of its {@link FeedForwardSettings}, estimates
+ * its state with a Kalman filter and drives it to the setpoint with a linear-quadratic regulator, using WPILib's
+ * {@link LinearSystemLoop}.
+ *
+ * <p>In the position control modes the model's states are position and velocity, and in the velocity control modes
+ * its only state is velocity. In both, only the controlled state is measured. The kS and kG of the settings are added
+ * on top of the regulator's output the same way a {@link FeedForwardController} adds them.</p>
+ *
+ * <p>Building the regulator and the filter solves Riccati equations, so they are only rebuilt when the version of
+ * the feed forward settings changes; every other iteration only multiplies the precomputed gain matrices. The model
+ * requires kA to be positive and kV not to be negative; settings that change to invalid values are ignored, and the
+ * previous model is kept until they are valid again.</p>
+ */
+public class StateSpaceController {
+
+    /**
+     * The default period of the controller, in seconds.
+     */
+    public static final double DEFAULT_PERIOD = 0.02;
+
+    private final FeedForwardSettings feedForwardSettings;
+    private final boolean positionControl;
+    private final double positionTolerance;
+    private final double velocityTolerance;
+    private final double maxOutput;
+    private final double modelStandardDeviation;
+    private final double measurementStandardDeviation;
+    private final double period;
+
+    /**
+     * Adds the kS and kG of the settings.
+     */
+    private final FeedForwardController staticFeedForwardController;
+
+    /**
+     * The loop used in the position control modes, or {@code null} in the velocity control modes.
+     */
+    private LinearSystemLoop<N2, N1, N1> positionLoop;
+
+    /**
+     * The loop used in the velocity control modes, or {@code null} in the position control modes.
+     */
+    private LinearSystemLoop<N1, N1, N1> velocityLoop;
+
+    /**
+     * Tracks the feed forward settings the loop was last built, or tried to be built, with.
+     */
+    private final SnapshotTracker<FeedForwardSettings.Snapshot> appliedFeedForwardSettings = new SnapshotTracker<>();
+
+    /**
+     * Why the loop could not be built with the latest feed forward settings, or {@code null} if it was.
+     */
+    private RuntimeException rejection;
+
+    private final Matrix<N1, N1> measurementVector = new Matrix<>(Nat.N1(), Nat.N1());
+
+    private double lastMeasurement;
+    private double lastSetpoint;
+
+    /**
+     * Constructs a controller.
+     *
+     * @param feedForwardSettings          the settings the model is built from
+     * @param positionTolerance            the largest position error the regulator should allow, which is ignored
+     *                                     in the velocity control modes
+     * @param velocityTolerance            the largest velocity error the regulator should allow
+     * @param maxOutput                    the largest output the regulator should use, to which the output is
+     *                                     clamped
+     * @param modelStandardDeviation       how much the mechanism's states are trusted to follow the model
+     * @param measurementStandardDeviation how much the measurements are trusted
+     * @param period                       the period the controller is calculated at, in seconds
+     * @throws IllegalArgumentException if the feed forward settings don't describe a valid model
+     */
+    public StateSpaceController(FeedForwardSettings feedForwardSettings, double positionTolerance,
+                                double velocityTolerance, double maxOutput, double modelStandardDeviation,
+                                double measurementStandardDeviation, double period) {
+        if (maxOutput <= 0) throw new IllegalArgumentException("max output must be positive");
+        if (period <= 0) throw new IllegalArgumentException("period must be positive");
+        this.feedForwardSettings = feedForwardSettings;
+        this.positionControl = switch (feedForwardSettings.getControlMode()) {
+            case LINEAR_POSITION, ANGULAR_POSITION -> true;
+            case LINEAR_VELOCITY, ANGULAR_VELOCITY -> false;
+        };
+        this.positionTolerance = positionTolerance;
+        this.velocityTolerance = velocityTolerance;
+        this.maxOutput = maxOutput;
+        this.modelStandardDeviation = modelStandardDeviation;
+        this.measurementStandardDeviation = measurementStandardDeviation;
+        this.period = period;
+        this.staticFeedForwardController = new FeedForwardController(0, 0, 0, 0,
+                feedForwardSettings.getControlMode());
+        applySettings();
+        if (rejection != null) {
+            throw new IllegalArgumentException("the feed forward settings don't describe a valid model", rejection);
+        }
+    }
+
+    public StateSpaceController(FeedForwardSettings feedForwardSettings, double positionTolerance,
+                                double velocityTolerance, double maxOutput, double modelStandardDeviation,
+                                double measurementStandardDeviation) {
+        this(feedForwardSettings, positionTolerance, velocityTolerance, maxOutput, modelStandardDeviation,
+                measurementStandardDeviation, DEFAULT_PERIOD);
+    }
+
+    /**
+     * Rebuilds the loop, only if the feed forward settings changed since it was last built. The estimated state is
+     * kept. If the settings don't describe a valid model, like while kA is being typed into the dashboard, or the
+     * loop can't be built with them, the previous loop is kept and the settings aren't tried again until they change.
+     */
+    public void applySettings() {
+        FeedForwardSettings.Snapshot settings = feedForwardSettings.getSnapshot();
+        if (!appliedFeedForwardSettings.changed(settings)) return;
+        if (!(settings.getkV() >= 0)) {
+            rejection = new IllegalArgumentException("kV must not be negative");
+            return;
+        }
+        if (!(settings.getkA() > 0)) {
+            rejection = new IllegalArgumentException("kA must be positive");
+            return;
+        }
+        try {
+            if (positionControl) {
+                LinearSystem<N2, N1, N1> plant = positionSystem(settings.getkV(), settings.getkA());
+                LinearSystemLoop<N2, N1, N1> loop = new LinearSystemLoop<>(plant,
+                        new LinearQuadraticRegulator<>(plant, VecBuilder.fill(positionTolerance, velocityTolerance),
+                                VecBuilder.fill(maxOutput), period),
+                        new KalmanFilter<>(Nat.N2(), Nat.N1(), plant,
+                                VecBuilder.fill(modelStandardDeviation, modelStandardDeviation),
+                                VecBuilder.fill(measurementStandardDeviation), period),
+                        maxOutput, period);
+                if (positionLoop != null) loop.reset(positionLoop.getXHat());
+                positionLoop = loop;
+            } else {
+                LinearSystem<N1, N1, N1> plant = LinearSystemId.identifyVelocitySystem(settings.getkV(),
+                        settings.getkA());
+                LinearSystemLoop<N1, N1, N1> loop = new LinearSystemLoop<>(plant,
+                        new LinearQuadraticRegulator<>(plant, VecBuilder.fill(velocityTolerance),
+                                VecBuilder.fill(maxOutput), period),
+                        new KalmanFilter<>(Nat.N1(), Nat.N1(), plant, VecBuilder.fill(modelStandardDeviation),
+                                VecBuilder.fill(measurementStandardDeviation), period),
+                        maxOutput, period);
+                if (velocityLoop != null) loop.reset(velocityLoop.getXHat());
+                velocityLoop = loop;
+            }
+        } catch (RuntimeException e) {
+            rejection = e;
+            return;
+        }
+        staticFeedForwardController.setGains(settings.getkS(), 0, 0, settings.getkG());
+        rejection = null;
+    }
+
+    /**
+     * Resets the estimated state to the given measurement, at rest. If the latest feed forward settings were
+     * rejected, the last valid loop is reset, and the rejection is reported by {@link #getRejection()}.
+     *
+     * @param measurement the current state
+     */
+    public void reset(double measurement) {
+        applySettings();
+        if (positionControl) {
+            positionLoop.reset(VecBuilder.fill(measurement, 0));
+        } else {
+            velocityLoop.reset(VecBuilder.fill(measurement));
+        }
+        lastMeasurement = measurement;
+        lastSetpoint = measurement;
+    }
+
+    /**
+     * Corrects the estimated state with the measurement, calculates the output towards the setpoint and predicts the
+     * next state. Should be called once every period.
+     *
+     * @param measurement the current state
+     * @param setpoint    the desired state
+     * @return the output
+     */
+    public double calculate(double measurement, double setpoint) {
+        applySettings();
+        lastMeasurement = measurement;
+        lastSetpoint = setpoint;
+        measurementVector.set(0, 0, measurement);
+        double output;
+        if (positionControl) {
+            positionLoop.setNextR(setpoint, 0);
+            positionLoop.correct(measurementVector);
+            positionLoop.predict(period);
+            output = positionLoop.getU(0);
+        } else {
+            velocityLoop.setNextR(setpoint);
+            velocityLoop.correct(measurementVector);
+            velocityLoop.predict(period);
+            output = velocityLoop.getU(0);
+        }
+        return output + staticFeedForwardController.calculate(measurement, setpoint);
+    }
+
+    /**
+     * @return whether the last measurement was within the tolerance of the controlled state from the setpoint
+     */
+    public boolean atSetpoint() {
+        double tolerance = positionControl ? positionTolerance : velocityTolerance;
+        return Math.abs(lastSetpoint - lastMeasurement) <= tolerance;
+    }
+
+    /**
+     * @return the estimated state of the controlled state
+     */
+    public double getEstimate() {
+        return positionControl ? positionLoop.getXHat(0) : velocityLoop.getXHat(0);
+    }
+
+    /**
+     * @return why the loop could not be built with the latest feed forward settings, which are then ignored until
+     * they change, or {@code null} if it was built with them
+     */
+    public RuntimeException getRejection() {
+        return rejection;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    public FeedForwardSettings getFeedForwardSettings() {
+        return feedForwardSettings;
+    }
+
+    /**
+     * Creates a position and velocity model which only measures the position.
+     */
+    private static LinearSystem<N2, N1, N1> positionSystem(double kV, double kA) {
+        return new LinearSystem<>(
+                MatBuilder.fill(Nat.N2(), Nat.N2(), 0, 1, 0, -kV / kA),
+                MatBuilder.fill(Nat.N2(), Nat.N1(), 0, 1 / kA),
+                MatBuilder.fill(Nat.N1(), Nat.N2(), 1, 0),
+                MatBuilder.fill(Nat.N1(), Nat.N1(), 0));
+    }
+}
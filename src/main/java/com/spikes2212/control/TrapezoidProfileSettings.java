@@ -1,5 +1,6 @@
 package com.spikes2212.control;
 
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -15,6 +16,11 @@ public class TrapezoidProfileSettings {
     public static final TrapezoidProfileSettings EMPTY_TRAPEZOID_PROFILE_SETTINGS =
             new TrapezoidProfileSettings(0, 0, 0);
 
+    /**
+     * The number of values in the settings, read by {@link #get(double[])}.
+     */
+    public static final int GROUP_SIZE = 3;
+
     private Supplier<Double> maxAcceleration;
     private Supplier<Double> maxVelocity;
 
@@ -23,6 +29,11 @@ public class TrapezoidProfileSettings {
      */
     private Supplier<Double> curve;
 
+    /**
+     * Takes the snapshots of the values.
+     */
+    private final SnapshotTaker<Snapshot> snapshots = new SnapshotTaker<>(GROUP_SIZE, this::get, Snapshot::new);
+
     public TrapezoidProfileSettings(Supplier<Double> maxAcceleration, Supplier<Double> maxVelocity,
                                     Supplier<Double> curve) {
         this.maxAcceleration = maxAcceleration;
@@ -42,12 +53,55 @@ public class TrapezoidProfileSettings {
         this(maxAcceleration, maxVelocity, 0);
     }
 
+    /**
+     * Reads all the values at once, in the order max acceleration, max velocity and curve.
+     *
+     * @param values the array to read the values into, with at least {@link #GROUP_SIZE} elements
+     */
+    public void get(double[] values) {
+        values[0] = getMaxAcceleration();
+        values[1] = getMaxVelocity();
+        values[2] = getCurve();
+    }
+
+    /**
+     * Takes a snapshot of the current values. If none of the values changed since the last snapshot, the same
+     * snapshot is returned, so a {@link SnapshotTracker} tells whether the values have to be applied again. Nothing
+     * is allocated unless a value changed. Settings given a change count using {@link #withChangeCount(IntSupplier)}
+     * only read their values when the count changes.
+     *
+     * @return the snapshot of the current values
+     */
+    public Snapshot getSnapshot() {
+        return snapshots.getSnapshot();
+    }
+
+    /**
+     * Makes the settings only read their values for a snapshot when the given count changes, such as the total number
+     * of changes of the NetworkTables constants they are read from. Replacing any of the values stops using the count.
+     *
+     * @param changeCount the total number of changes of the values, which must change whenever any of them changes
+     * @return these settings
+     */
+    public TrapezoidProfileSettings withChangeCount(IntSupplier changeCount) {
+        snapshots.setChangeCount(changeCount);
+        return this;
+    }
+
+    /**
+     * @return the current version of the values, which changes whenever any of them changes
+     */
+    public long getVersion() {
+        return getSnapshot().getVersion();
+    }
+
     public double getMaxAcceleration() {
         return maxAcceleration.get();
     }
 
     public void setMaxAcceleration(Supplier<Double> maxAcceleration) {
         this.maxAcceleration = maxAcceleration;
+        snapshots.valueReplaced();
     }
 
     public double getMaxVelocity() {
@@ -56,6 +110,7 @@ public class TrapezoidProfileSettings {
 
     public void setMaxVelocity(Supplier<Double> maxVelocity) {
         this.maxVelocity = maxVelocity;
+        snapshots.valueReplaced();
     }
 
     public double getCurve() {
@@ -64,5 +119,28 @@ public class TrapezoidProfileSettings {
 
     public void setCurve(Supplier<Double> curve) {
         this.curve = curve;
+        snapshots.valueReplaced();
+    }
+
+    /**
+     * An immutable copy of the values of {@link TrapezoidProfileSettings} at a certain time, along with its version.
+     */
+    public static final class Snapshot extends SettingsSnapshot {
+
+        private Snapshot(long version, double[] values) {
+            super(version, values);
+        }
+
+        public double getMaxAcceleration() {
+            return get(0);
+        }
+
+        public double getMaxVelocity() {
+            return get(1);
+        }
+
+        public double getCurve() {
+            return get(2);
+        }
     }
 }
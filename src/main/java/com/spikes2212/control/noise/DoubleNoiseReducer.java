@@ -0,0 +1,31 @@
+package com.spikes2212.control.noise;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Like a {@link NoiseReducer}, but for a primitive {@link DoubleSupplier}, so every sample of the source is filtered
+ * without boxing it.
+ */
+public class DoubleNoiseReducer implements DoubleSupplier {
+
+    private final DoubleSupplier source;
+
+    private final NoiseFilter filter;
+
+    public DoubleNoiseReducer(DoubleSupplier source, NoiseFilter filter) {
+        this.source = source;
+        this.filter = filter;
+    }
+
+    @Override
+    public double getAsDouble() {
+        return filter.calculate(source.getAsDouble());
+    }
+
+    /**
+     * Clears the state of the filter.
+     */
+    public void reset() {
+        filter.reset();
+    }
+}
@@ -21,4 +21,9 @@ public class ExponentialFilter implements NoiseFilter {
         previous = calculation;
         return calculation;
     }
+
+    @Override
+    public void reset() {
+        previous = 0;
+    }
 }
@@ -0,0 +1,61 @@
+package com.spikes2212.control.noise;
+
+import java.util.Arrays;
+
+/**
+ * A chain of {@link NoiseFilter}s, where every filter is passed the output of the one before it. Chaining happens
+ * when the pipeline is built, so filtering a measurement only calls the stages one after the other.
+ *
+ * <p>For example, {@code new MedianFilter(5).andThen(new ExponentialFilter(0.3)).andThen(new RateLimitFilter(2,
+ * 0.02))} removes spikes, smooths the result and limits how fast it can change.</p>
+ */
+public class FilterPipeline implements NoiseFilter {
+
+    private final NoiseFilter[] stages;
+
+    public FilterPipeline(NoiseFilter... stages) {
+        if (stages.length == 0) throw new IllegalArgumentException("a pipeline needs at least one stage");
+        this.stages = stages.clone();
+    }
+
+    @Override
+    public double calculate(double measurement) {
+        double value = measurement;
+        for (NoiseFilter stage : stages) {
+            value = stage.calculate(value);
+        }
+        return value;
+    }
+
+    /**
+     * Filters the whole batch through every stage in turn, so each stage runs its own loop over the batch.
+     */
+    @Override
+    public void calculate(double[] in, double[] out, int n) {
+        stages[0].calculate(in, out, n);
+        for (int i = 1; i < stages.length; i++) {
+            stages[i].calculate(out, out, n);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (NoiseFilter stage : stages) {
+            stage.reset();
+        }
+    }
+
+    @Override
+    public FilterPipeline andThen(NoiseFilter next) {
+        NoiseFilter[] chained = Arrays.copyOf(stages, stages.length + 1);
+        chained[stages.length] = next;
+        return new FilterPipeline(chained);
+    }
+
+    /**
+     * @return the number of stages
+     */
+    public int size() {
+        return stages.length;
+    }
+}
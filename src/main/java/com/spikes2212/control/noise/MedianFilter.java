@@ -0,0 +1,64 @@
+package com.spikes2212.control.noise;
+
+/**
+ * A filter which outputs the median of the last measurements, which removes single spikes without lagging behind
+ * steps the way an average does. Until enough measurements were given, the median of the ones given so far is used.
+ */
+public class MedianFilter implements NoiseFilter {
+
+    /**
+     * The last measurements, as a ring buffer.
+     */
+    private final double[] window;
+
+    /**
+     * A buffer the window is sorted in.
+     */
+    private final double[] sorted;
+
+    private int next;
+    private int count;
+
+    /**
+     * Constructs a median filter.
+     *
+     * @param size the number of measurements the median is taken of
+     */
+    public MedianFilter(int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        this.window = new double[size];
+        this.sorted = new double[size];
+    }
+
+    @Override
+    public double calculate(double measurement) {
+        window[next] = measurement;
+        next = (next + 1) % window.length;
+        if (count < window.length) count++;
+
+        for (int i = 0; i < count; i++) {
+            double value = window[i];
+            int j = i - 1;
+            while (j >= 0 && sorted[j] > value) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = value;
+        }
+        int middle = count / 2;
+        return count % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    @Override
+    public void reset() {
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * @return the number of measurements the median is taken of
+     */
+    public int getSize() {
+        return window.length;
+    }
+}
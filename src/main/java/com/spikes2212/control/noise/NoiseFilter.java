@@ -11,4 +11,34 @@ public interface NoiseFilter {
      * A noise-filtering calculation
      */
     double calculate(double measurement);
+
+    /**
+     * Filters a batch of measurements in order, as if {@link #calculate(double)} was called with each of them. The
+     * input and output may be the same array.
+     *
+     * @param in  the measurements
+     * @param out the array to write the filtered measurements into
+     * @param n   the number of measurements
+     */
+    default void calculate(double[] in, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = calculate(in[i]);
+        }
+    }
+
+    /**
+     * Clears the state of the filter, so the next measurement is filtered as if it was the first one.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Chains another filter after this one.
+     *
+     * @param next the filter the output of this filter is passed to
+     * @return a {@link FilterPipeline} of this filter and the next one
+     */
+    default NoiseFilter andThen(NoiseFilter next) {
+        return new FilterPipeline(this, next);
+    }
 }
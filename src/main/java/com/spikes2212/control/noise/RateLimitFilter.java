@@ -0,0 +1,44 @@
+package com.spikes2212.control.noise;
+
+/**
+ * A filter which limits how fast its output can change, assuming the measurements are given at a constant period.
+ * The first measurement is passed as is.
+ */
+public class RateLimitFilter implements NoiseFilter {
+
+    /**
+     * The largest change between two outputs.
+     */
+    private final double maxStep;
+
+    private double previous;
+    private boolean started;
+
+    /**
+     * Constructs a rate limit filter.
+     *
+     * @param maxRate the largest rate of change of the output, in units per second
+     * @param period  the time between measurements, in seconds
+     */
+    public RateLimitFilter(double maxRate, double period) {
+        if (maxRate < 0) throw new IllegalArgumentException("max rate must not be negative");
+        if (period <= 0) throw new IllegalArgumentException("period must be positive");
+        this.maxStep = maxRate * period;
+    }
+
+    @Override
+    public double calculate(double measurement) {
+        if (started) {
+            previous += Math.max(-maxStep, Math.min(maxStep, measurement - previous));
+        } else {
+            previous = measurement;
+            started = true;
+        }
+        return previous;
+    }
+
+    @Override
+    public void reset() {
+        started = false;
+    }
+}
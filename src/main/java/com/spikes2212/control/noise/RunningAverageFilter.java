@@ -10,7 +10,8 @@ public class RunningAverageFilter implements NoiseFilter {
     private double sum = 0;
     private int count = 0;
 
-    private void reset() {
+    @Override
+    public void reset() {
         sum = 0;
         count = 0;
     }
@@ -1,15 +1,25 @@
 package com.spikes2212.dashboard;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * A class that extends {@link SendableChooser} in order to make an autonomous command chooser.
  *
+ * <p>Options can also be given as {@link Supplier}s of commands, which are only constructed when they are selected.
+ * Commands are constructed on the robot thread, since constructing them usually touches the
+ * {@link CommandScheduler}. While the robot is disabled, {@link #disabledPeriodic()} constructs the selected option,
+ * so {@link #schedule()} can start it without delay. The selection is only noticed when the chooser's
+ * {@link Namespace} is updated.</p>
+ *
  * @author Ofri Rosenbaum
  * @see SendableChooser
  */
@@ -42,6 +52,11 @@ public class AutoChooser extends SendableChooser<Command> {
      */
     private final HashSet<String> names = new HashSet<>();
 
+    /**
+     * The selected lazy option if it was not constructed yet, or {@code null}.
+     */
+    private LazyOption pending;
+
     /**
      * Creates an {@link AutoChooser} from the given commands, where the first command will be the default option and
      * the rest of the commands will be the rest of the options.
@@ -62,9 +77,41 @@ public class AutoChooser extends SendableChooser<Command> {
         for (Command option : options) {
             addOption(option.getName(), option);
         }
+        onChange(this::onSelectionChanged);
         putOnShuffleboard();
     }
 
+    /**
+     * Creates an {@link AutoChooser} whose default option is constructed lazily from the given {@link Supplier}.
+     * More options can be added with {@link #addOption(String, Supplier)}. The default option is constructed by the
+     * first call to {@link #disabledPeriodic()}.
+     *
+     * @param namespace         the namespace that this {@link AutoChooser} will be on
+     * @param defaultOptionName the name for the default option
+     * @param defaultOption     a {@link Supplier} that constructs the default command
+     */
+    public AutoChooser(Namespace namespace, String defaultOptionName, Supplier<Command> defaultOption) {
+        this.namespace = namespace;
+        addName(defaultOptionName);
+        LazyOption option = new LazyOption(defaultOption);
+        setDefaultOption(defaultOptionName, option);
+        onChange(this::onSelectionChanged);
+        pending = option;
+        putOnShuffleboard();
+    }
+
+    /**
+     * Creates an {@link AutoChooser} whose default option is constructed lazily from the given {@link Supplier}.
+     * More options can be added with {@link #addOption(String, Supplier)}. The default option is constructed by the
+     * first call to {@link #disabledPeriodic()}.
+     *
+     * @param defaultOptionName the name for the default option
+     * @param defaultOption     a {@link Supplier} that constructs the default command
+     */
+    public AutoChooser(String defaultOptionName, Supplier<Command> defaultOption) {
+        this(new RootNamespace(DEFAULT_NAMESPACE_NAME), defaultOptionName, defaultOption);
+    }
+
     /**
      * Creates an {@link AutoChooser} from the given commands, where the first command will be the default option and
      * the rest of the commands will be the rest of the options.
@@ -119,6 +166,7 @@ public class AutoChooser extends SendableChooser<Command> {
             }
             addOption(name, command);
         }
+        onChange(this::onSelectionChanged);
         putOnShuffleboard();
     }
 
@@ -175,10 +223,37 @@ public class AutoChooser extends SendableChooser<Command> {
     }
 
     /**
-     * Schedules the selected command and closes this {@link AutoChooser}.
+     * Adds an option that is constructed from the given {@link Supplier} only when it is selected. <br>
+     * If this name already exists, a number will be added to differentiate between the options.
+     *
+     * @param name   the name of the option
+     * @param option a {@link Supplier} that constructs the option's command
+     */
+    public void addOption(String name, Supplier<Command> option) {
+        addOption(name, new LazyOption(option));
+    }
+
+    /**
+     * Constructs the selected option if it is lazy and was not constructed yet, on the calling thread. Should be
+     * called from the robot's {@code disabledPeriodic}, so at most one option is constructed every iteration, and
+     * only while the robot is disabled.
+     */
+    public void disabledPeriodic() {
+        if (pending == null || !DriverStation.isDisabled()) return;
+        LazyOption option = pending;
+        pending = null;
+        option.get();
+    }
+
+    /**
+     * Schedules the selected command and closes this {@link AutoChooser}. A lazy option that was already constructed
+     * by {@link #disabledPeriodic()} is scheduled as is; otherwise it is constructed first, on the calling thread.
      */
     public void schedule() {
-        CommandScheduler.getInstance().schedule(getSelected());
+        Command selected = getSelected();
+        if (selected instanceof LazyOption) selected = ((LazyOption) selected).get();
+        pending = null;
+        CommandScheduler.getInstance().schedule(selected);
         close();
     }
 
@@ -202,7 +277,86 @@ public class AutoChooser extends SendableChooser<Command> {
         return names.add(name);
     }
 
+    /**
+     * Marks the newly selected option to be constructed by {@link #disabledPeriodic()}, if it is lazy and was not
+     * constructed yet.
+     *
+     * @param selected the selected option
+     */
+    private void onSelectionChanged(Command selected) {
+        if (selected instanceof LazyOption && !((LazyOption) selected).isBuilt()) {
+            pending = (LazyOption) selected;
+        } else {
+            pending = null;
+        }
+    }
+
     private void putOnShuffleboard() {
         namespace.putData("auto chooser", this);
     }
+
+    /**
+     * An option that is constructed from a {@link Supplier} the first time it is needed. If it is scheduled directly,
+     * it runs its constructed command.
+     */
+    private static class LazyOption extends Command {
+
+        private final Supplier<Command> supplier;
+
+        /**
+         * The constructed command, or {@code null} if it was not constructed yet.
+         */
+        private Command command;
+
+        private LazyOption(Supplier<Command> supplier) {
+            this.supplier = supplier;
+        }
+
+        private boolean isBuilt() {
+            return command != null;
+        }
+
+        /**
+         * @return the constructed command, which is constructed on the calling thread if it was not constructed yet
+         */
+        private Command get() {
+            if (command == null) command = supplier.get();
+            return command;
+        }
+
+        @Override
+        public Set<Subsystem> getRequirements() {
+            return get().getRequirements();
+        }
+
+        @Override
+        public void initialize() {
+            get().initialize();
+        }
+
+        @Override
+        public void execute() {
+            get().execute();
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            get().end(interrupted);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return get().isFinished();
+        }
+
+        @Override
+        public boolean runsWhenDisabled() {
+            return get().runsWhenDisabled();
+        }
+
+        @Override
+        public InterruptionBehavior getInterruptionBehavior() {
+            return get().getInterruptionBehavior();
+        }
+    }
 }
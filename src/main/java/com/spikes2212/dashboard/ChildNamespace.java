@@ -2,80 +2,177 @@ package com.spikes2212.dashboard;
 
 import edu.wpi.first.util.sendable.Sendable;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 /**
  * This class represents a "subdirectory" of another {@link Namespace} which can store values or other ChildNamespaces.
+ *
+ * <p>A child namespace resolves its absolute path once, when it is created, and passes its values straight to the
+ * root of its namespace tree instead of going up through every parent.</p>
  */
 public class ChildNamespace extends RootNamespace {
 
     protected final Namespace parent;
     protected final String separator;
 
+    /**
+     * The namespace that stores this namespace's values: the root of the namespace tree, or the first parent which
+     * is not a {@link RootNamespace}.
+     */
+    protected final Namespace target;
+
+    /**
+     * The path of this namespace inside {@link #target}, which is added before every key.
+     */
+    protected final String prefix;
+
+    /**
+     * The full paths of the keys that were read from this namespace.
+     */
+    private final Map<String, String> paths;
+
     public ChildNamespace(String name, Namespace parent) {
-        super(name);
-        this.parent = parent;
-        separator = "/";
+        this(name, parent, "/");
     }
 
     public ChildNamespace(String name, Namespace parent, String separator) {
-        super(name);
+        super(name, rootOf(parent));
         this.parent = parent;
         this.separator = separator;
+        if (parent instanceof ChildNamespace) {
+            ChildNamespace childParent = (ChildNamespace) parent;
+            this.target = childParent.target;
+            this.prefix = childParent.prefix + name + separator;
+        } else {
+            this.target = parent;
+            this.prefix = name + separator;
+        }
+        this.paths = new HashMap<>();
+    }
+
+    @Override
+    public DoubleConstant addConstantAsDouble(String name, double value) {
+        return target.addConstantAsDouble(prefix + name, value);
+    }
+
+    @Override
+    public IntConstant addConstantAsInt(String name, int value) {
+        return target.addConstantAsInt(prefix + name, value);
+    }
+
+    @Override
+    public StringConstant addConstantString(String name, String value) {
+        return target.addConstantString(prefix + name, value);
     }
 
     @Override
-    public Supplier<Double> addConstantDouble(String name, double value) {
-        return parent.addConstantDouble(this.name + separator + name, value);
+    public DoubleArrayConstant addConstantArray(String name, double[] value) {
+        return target.addConstantArray(prefix + name, value);
     }
 
     @Override
-    public Supplier<Integer> addConstantInt(String name, int value) {
-        return parent.addConstantInt(this.name + separator + name, value);
+    public void setConstantDouble(String name, double value) {
+        target.setConstantDouble(prefix + name, value);
     }
 
     @Override
-    public Supplier<String> addConstantString(String name, String value) {
-        return parent.addConstantString(this.name + separator + name, value);
+    public void setConstantArray(String name, double[] value) {
+        target.setConstantArray(prefix + name, value);
     }
 
     @Override
-    public void putData(String key, Sendable value) {
-        parent.putData(name + separator + key, value);
+    public void putData(String key, Sendable value, UpdateRate updateRate) {
+        target.putData(prefix + key, value, updateRate);
     }
 
     @Override
     public Sendable getSendable(String key) {
-        return parent.getSendable(name + separator + key);
+        return target.getSendable(path(key));
     }
 
     @Override
-    public void putString(String key, Supplier<String> value) {
-        parent.putString(name + separator + key, value);
+    public void putString(String key, Supplier<String> value, UpdateRate updateRate) {
+        target.putString(prefix + key, value, updateRate);
     }
 
     @Override
     public String getString(String key) {
-        return parent.getString(name + separator + key);
+        return target.getString(path(key));
     }
 
     @Override
-    public void putNumber(String key, Supplier<? extends Number> value) {
-        parent.putNumber(name + separator + key, value);
+    public void putNumber(String key, DoubleSupplier value, double epsilon, UpdateRate updateRate) {
+        target.putNumber(prefix + key, value, epsilon, updateRate);
     }
 
     @Override
     public double getNumber(String key) {
-        return parent.getNumber(name + separator + key);
+        return target.getNumber(path(key));
     }
 
     @Override
-    public void putBoolean(String key, Supplier<Boolean> value) {
-        parent.putBoolean(name + separator + key, value);
+    public void putBoolean(String key, BooleanSupplier value, UpdateRate updateRate) {
+        target.putBoolean(prefix + key, value, updateRate);
     }
 
     @Override
     public boolean getBoolean(String key) {
-        return parent.getBoolean(name + separator + key);
+        return target.getBoolean(path(key));
+    }
+
+    @Override
+    public void remove(String name) {
+        if (target instanceof RootNamespace) ((RootNamespace) target).remove(prefix + name);
+    }
+
+    @Override
+    public void setSnapshotPublisher(SnapshotPublisher publisher) {
+        target.setSnapshotPublisher(publisher);
+    }
+
+    @Override
+    public void setProfiler(NamespaceProfiler profiler) {
+        target.setProfiler(profiler);
+    }
+
+    @Override
+    public void setChangeDetection(boolean enabled, int refreshPeriod) {
+        target.setChangeDetection(enabled, refreshPeriod);
+    }
+
+    /**
+     * Does nothing, since this namespace's values are updated by {@link #target}.
+     */
+    @Override
+    public void update() {
+    }
+
+    /**
+     * @param key a key in this namespace
+     * @return the full path of the key inside {@link #target}
+     */
+    private String path(String key) {
+        String path = paths.get(key);
+        if (path == null) {
+            path = prefix + key;
+            paths.put(key, path);
+        }
+        return path;
+    }
+
+    /**
+     * @param parent the parent of a new child namespace
+     * @return the {@link RootNamespace} at the top of the parent's tree, or {@code null} if there is none
+     */
+    private static RootNamespace rootOf(Namespace parent) {
+        if (parent instanceof ChildNamespace) {
+            Namespace target = ((ChildNamespace) parent).target;
+            return target instanceof RootNamespace ? (RootNamespace) target : null;
+        }
+        return parent instanceof RootNamespace ? (RootNamespace) parent : null;
     }
 }
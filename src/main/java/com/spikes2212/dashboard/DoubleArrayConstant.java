@@ -0,0 +1,53 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleArrayTopic;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.function.Supplier;
+
+/**
+ * A double array {@link NamespaceConstant}, for a group of values that should always be read together.
+ *
+ * <p>Every edit replaces the whole cached array, so a single {@link #get()} always returns values that were set
+ * together. Edits that change the length of the array are ignored.</p>
+ */
+public class DoubleArrayConstant extends NamespaceConstant implements Supplier<double[]> {
+
+    private final int length;
+
+    private volatile double[] value;
+
+    DoubleArrayConstant(DoubleArrayTopic topic, double[] defaultValue) {
+        this(topic.subscribe(defaultValue), defaultValue);
+    }
+
+    private DoubleArrayConstant(DoubleArraySubscriber subscriber, double[] defaultValue) {
+        super(subscriber);
+        this.length = defaultValue.length;
+        double[] current = subscriber.get();
+        this.value = current.length == length ? current : defaultValue.clone();
+    }
+
+    /**
+     * @return the current values, which must not be modified
+     */
+    @Override
+    public double[] get() {
+        return value;
+    }
+
+    /**
+     * @return the number of values in the group
+     */
+    public int length() {
+        return length;
+    }
+
+    @Override
+    protected boolean accept(NetworkTableValue value) {
+        if (!value.isDoubleArray() || value.getDoubleArray().length != length) return false;
+        this.value = value.getDoubleArray();
+        return true;
+    }
+}
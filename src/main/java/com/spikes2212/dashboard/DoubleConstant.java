@@ -0,0 +1,36 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.DoubleTopic;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A double {@link NamespaceConstant}.
+ */
+public class DoubleConstant extends NamespaceConstant implements DoubleSupplier {
+
+    private volatile double value;
+
+    DoubleConstant(DoubleTopic topic, double defaultValue) {
+        this(topic.subscribe(defaultValue));
+    }
+
+    private DoubleConstant(DoubleSubscriber subscriber) {
+        super(subscriber);
+        this.value = subscriber.get();
+    }
+
+    @Override
+    public double getAsDouble() {
+        return value;
+    }
+
+    @Override
+    protected boolean accept(NetworkTableValue value) {
+        if (!value.isDouble()) return false;
+        this.value = value.getDouble();
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.DoubleTopic;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+import java.util.function.IntSupplier;
+
+/**
+ * An integer {@link NamespaceConstant}. The value is stored in the NetworkTables as a double, like other numbers.
+ */
+public class IntConstant extends NamespaceConstant implements IntSupplier {
+
+    private volatile int value;
+
+    IntConstant(DoubleTopic topic, int defaultValue) {
+        this(topic.subscribe(defaultValue));
+    }
+
+    private IntConstant(DoubleSubscriber subscriber) {
+        super(subscriber);
+        this.value = (int) subscriber.get();
+    }
+
+    @Override
+    public int getAsInt() {
+        return value;
+    }
+
+    @Override
+    protected boolean accept(NetworkTableValue value) {
+        if (!value.isDouble()) return false;
+        this.value = (int) value.getDouble();
+        return true;
+    }
+}
@@ -8,13 +8,34 @@ import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
  * This is the base interface which all namespaces inherit from.
+ *
+ * <p>Adding a constant with a key that was already added returns the existing constant, so namespaces created
+ * repeatedly, such as by command factories, share a single listener for every constant.</p>
  */
 public interface Namespace {
 
+    /**
+     * The default number of updates between two forced publishes of all fields while change detection is enabled.
+     */
+    int DEFAULT_REFRESH_PERIOD = 50;
+
+    /**
+     * Adds a double constant to the namespace, whose value can only be changed by a {@link NetworkTable}s UI,
+     * such as the shuffleboard.
+     *
+     * @param name  the key that will be given to the value
+     * @param value the initial value to be added
+     * @return a {@link DoubleConstant} with the value set using the {@link NetworkTable}s
+     */
+    DoubleConstant addConstantAsDouble(String name, double value);
+
     /**
      * Adds a Double {@link Supplier} to the namespace, whose value can only be changed by a {@link NetworkTable}s UI,
      * such as the shuffleboard.
@@ -23,7 +44,20 @@ public interface Namespace {
      * @param value the initial value to be added
      * @return a {@link Supplier} with the value set using the {@link NetworkTable}s
      */
-    Supplier<Double> addConstantDouble(String name, double value);
+    default Supplier<Double> addConstantDouble(String name, double value) {
+        DoubleSupplier constant = addConstantAsDouble(name, value);
+        return constant::getAsDouble;
+    }
+
+    /**
+     * Adds an integer constant to the namespace, whose value can only be changed by a {@link NetworkTable}s UI,
+     * such as the shuffleboard.
+     *
+     * @param name  the key that will be given to the value
+     * @param value the initial value to be added
+     * @return an {@link IntConstant} with the value set using the {@link NetworkTable}s
+     */
+    IntConstant addConstantAsInt(String name, int value);
 
     /**
      * Adds an Integer {@link Supplier} to the namespace, whose value can only be changed by a {@link NetworkTable}s UI,
@@ -33,7 +67,10 @@ public interface Namespace {
      * @param value the initial value to be added
      * @return a {@link Supplier} with the value set using the {@link NetworkTable}s
      */
-    Supplier<Integer> addConstantInt(String name, int value);
+    default Supplier<Integer> addConstantInt(String name, int value) {
+        IntSupplier constant = addConstantAsInt(name, value);
+        return constant::getAsInt;
+    }
 
     /**
      * Adds a String {@link Supplier} to the namespace, whose value can only be changed by a {@link NetworkTable}s UI,
@@ -41,9 +78,35 @@ public interface Namespace {
      *
      * @param name  the key that will be given to the value
      * @param value the initial value to be added
-     * @return a {@link Supplier} with the value set using the {@link NetworkTable}s
+     * @return a {@link StringConstant} with the value set using the {@link NetworkTable}s
      */
-    Supplier<String> addConstantString(String name, String value);
+    StringConstant addConstantString(String name, String value);
+
+    /**
+     * Adds a group of double constants to the namespace as a single array, whose values can only be changed by a
+     * {@link NetworkTable}s UI, such as the shuffleboard. The values of the group are always read together.
+     *
+     * @param name  the key that will be given to the values
+     * @param value the initial values to be added
+     * @return a {@link DoubleArrayConstant} with the values set using the {@link NetworkTable}s
+     */
+    DoubleArrayConstant addConstantArray(String name, double[] value);
+
+    /**
+     * Changes the value of a double constant, as if it was edited through a {@link NetworkTable}s UI.
+     *
+     * @param name  the key of the constant
+     * @param value the new value
+     */
+    void setConstantDouble(String name, double value);
+
+    /**
+     * Changes the values of a group of double constants, as if they were edited through a {@link NetworkTable}s UI.
+     *
+     * @param name  the key of the group
+     * @param value the new values, which must have the group's length
+     */
+    void setConstantArray(String name, double[] value);
 
     /**
      * Adds a {@link ChildNamespace} to this namespace.
@@ -53,13 +116,24 @@ public interface Namespace {
      */
     ChildNamespace addChild(String name);
 
+    /**
+     * Adds a {@link Sendable} to the namespace, which is updated at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value's properties are updated
+     */
+    void putData(String key, Sendable value, UpdateRate updateRate);
+
     /**
      * Adds a {@link Sendable} to the namespace.
      *
      * @param key   the key that will be given to the value
      * @param value the value to be added
      */
-    void putData(String key, Sendable value);
+    default void putData(String key, Sendable value) {
+        putData(key, value, UpdateRate.FAST);
+    }
 
     /**
      * Adds a {@link Command} to the namespace.
@@ -107,17 +181,28 @@ public interface Namespace {
      * Gets a {@link Sendable} from the namespace.
      *
      * @param key the key of the value
-     * @return the desired value
+     * @return the desired value, or {@code null} if there is no {@link Sendable} with the given key
      */
     Sendable getSendable(String key);
 
+    /**
+     * Adds a String {@link Supplier} to the namespace, which is sampled at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value is sampled and published
+     */
+    void putString(String key, Supplier<String> value, UpdateRate updateRate);
+
     /**
      * Adds a String {@link Supplier} to the namespace.
      *
      * @param key   the key that will be given to the value
      * @param value the value to be added
      */
-    void putString(String key, Supplier<String> value);
+    default void putString(String key, Supplier<String> value) {
+        putString(key, value, UpdateRate.FAST);
+    }
 
     /**
      * Adds a String value to the namespace.
@@ -137,13 +222,113 @@ public interface Namespace {
      */
     String getString(String key);
 
+    /**
+     * Adds a {@link DoubleSupplier} to the namespace, which is sampled at the given {@link UpdateRate} and is only
+     * considered changed when its value moves by more than the given epsilon. The epsilon only matters while change
+     * detection is enabled.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param epsilon    the maximal difference from the last published value that is not considered a change
+     * @param updateRate the rate at which the value is sampled and published
+     * @see #setChangeDetection(boolean, int)
+     */
+    void putNumber(String key, DoubleSupplier value, double epsilon, UpdateRate updateRate);
+
+    /**
+     * Adds a {@link DoubleSupplier} to the namespace, which is only considered changed when its value moves by more
+     * than the given epsilon. The epsilon only matters while change detection is enabled.
+     *
+     * @param key     the key that will be given to the value
+     * @param value   the value to be added
+     * @param epsilon the maximal difference from the last published value that is not considered a change
+     * @see #setChangeDetection(boolean, int)
+     */
+    default void putNumber(String key, DoubleSupplier value, double epsilon) {
+        putNumber(key, value, epsilon, UpdateRate.FAST);
+    }
+
+    /**
+     * Adds a {@link DoubleSupplier} to the namespace, which is sampled at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value is sampled and published
+     */
+    default void putNumber(String key, DoubleSupplier value, UpdateRate updateRate) {
+        putNumber(key, value, 0, updateRate);
+    }
+
+    /**
+     * Adds a {@link DoubleSupplier} to the namespace.
+     *
+     * @param key   the key that will be given to the value
+     * @param value the value to be added
+     */
+    default void putNumber(String key, DoubleSupplier value) {
+        putNumber(key, value, 0, UpdateRate.FAST);
+    }
+
+    /**
+     * Adds an {@link IntSupplier} to the namespace.
+     *
+     * @param key   the key that will be given to the value
+     * @param value the value to be added
+     */
+    default void putNumber(String key, IntSupplier value) {
+        DoubleSupplier supplier = value::getAsInt;
+        putNumber(key, supplier, 0, UpdateRate.FAST);
+    }
+
+    /**
+     * Adds a Number {@link Supplier} to the namespace, which is sampled at the given {@link UpdateRate} and is only
+     * considered changed when its value moves by more than the given epsilon. The epsilon only matters while change
+     * detection is enabled.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param epsilon    the maximal difference from the last published value that is not considered a change
+     * @param updateRate the rate at which the value is sampled and published
+     * @see #setChangeDetection(boolean, int)
+     */
+    default void putNumber(String key, Supplier<? extends Number> value, double epsilon, UpdateRate updateRate) {
+        DoubleSupplier supplier = () -> value.get().doubleValue();
+        putNumber(key, supplier, epsilon, updateRate);
+    }
+
+    /**
+     * Adds a Number {@link Supplier} to the namespace, which is only considered changed when its value moves by more
+     * than the given epsilon. The epsilon only matters while change detection is enabled.
+     *
+     * @param key     the key that will be given to the value
+     * @param value   the value to be added
+     * @param epsilon the maximal difference from the last published value that is not considered a change
+     * @see #setChangeDetection(boolean, int)
+     */
+    default void putNumber(String key, Supplier<? extends Number> value, double epsilon) {
+        putNumber(key, value, epsilon, UpdateRate.FAST);
+    }
+
+    /**
+     * Adds a Number {@link Supplier} to the namespace, which is sampled at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value is sampled and published
+     */
+    default void putNumber(String key, Supplier<? extends Number> value, UpdateRate updateRate) {
+        putNumber(key, value, 0, updateRate);
+    }
+
     /**
      * Adds a Number {@link Supplier} to the namespace.
      *
      * @param key   the key that will be given to the value
      * @param value the value to be added
      */
-    void putNumber(String key, Supplier<? extends Number> value);
+    default void putNumber(String key, Supplier<? extends Number> value) {
+        putNumber(key, value, 0, UpdateRate.FAST);
+    }
 
     /**
      * Adds a Number value to the namespace.
@@ -152,7 +337,9 @@ public interface Namespace {
      * @param number the value to be added
      */
     default void putNumber(String key, Number number) {
-        this.putNumber(key, () -> number);
+        double value = number.doubleValue();
+        DoubleSupplier supplier = () -> value;
+        this.putNumber(key, supplier);
     }
 
     /**
@@ -163,13 +350,46 @@ public interface Namespace {
      */
     double getNumber(String key);
 
+    /**
+     * Adds a {@link BooleanSupplier} to the namespace, which is sampled at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value is sampled and published
+     */
+    void putBoolean(String key, BooleanSupplier value, UpdateRate updateRate);
+
+    /**
+     * Adds a {@link BooleanSupplier} to the namespace.
+     *
+     * @param key   the key that will be given to the value
+     * @param value the value to be added
+     */
+    default void putBoolean(String key, BooleanSupplier value) {
+        putBoolean(key, value, UpdateRate.FAST);
+    }
+
+    /**
+     * Adds a Boolean {@link Supplier} to the namespace, which is sampled at the given {@link UpdateRate}.
+     *
+     * @param key        the key that will be given to the value
+     * @param value      the value to be added
+     * @param updateRate the rate at which the value is sampled and published
+     */
+    default void putBoolean(String key, Supplier<Boolean> value, UpdateRate updateRate) {
+        BooleanSupplier supplier = value::get;
+        putBoolean(key, supplier, updateRate);
+    }
+
     /**
      * Adds a Boolean {@link Supplier} to the namespace.
      *
      * @param key   the key that will be given to the value
      * @param value the value to be added
      */
-    void putBoolean(String key, Supplier<Boolean> value);
+    default void putBoolean(String key, Supplier<Boolean> value) {
+        putBoolean(key, value, UpdateRate.FAST);
+    }
 
     /**
      * Adds a boolean value to the namespace.
@@ -178,7 +398,8 @@ public interface Namespace {
      * @param value the value to be added
      */
     default void putBoolean(String key, boolean value) {
-        this.putBoolean(key, () -> value);
+        BooleanSupplier supplier = () -> value;
+        this.putBoolean(key, supplier);
     }
 
     /**
@@ -198,19 +419,71 @@ public interface Namespace {
      */
     default PIDSettings addPIDNamespace(String name, PIDSettings initialPIDSettings) {
         ChildNamespace child = this.addChild(name + " pid");
-        Supplier<Double> kP = child.addConstantDouble(name + " kP", initialPIDSettings.getkP());
-        Supplier<Double> kI = child.addConstantDouble(name + " kI", initialPIDSettings.getkI());
-        Supplier<Double> kD = child.addConstantDouble(name + " kD", initialPIDSettings.getkD());
-        Supplier<Double> IZone = child.addConstantDouble(name + " i zone", initialPIDSettings.getIZone());
-        Supplier<Double> tolerance = child.addConstantDouble(name + " tolerance", initialPIDSettings.getTolerance());
-        Supplier<Double> waitTime = child.addConstantDouble(name + " wait time", initialPIDSettings.getWaitTime());
-        return new PIDSettings(kP, kI, kD, IZone, tolerance, waitTime);
+        DoubleConstant kP = child.addConstantAsDouble(name + " kP", initialPIDSettings.getkP());
+        DoubleConstant kI = child.addConstantAsDouble(name + " kI", initialPIDSettings.getkI());
+        DoubleConstant kD = child.addConstantAsDouble(name + " kD", initialPIDSettings.getkD());
+        DoubleConstant iZone = child.addConstantAsDouble(name + " i zone", initialPIDSettings.getIZone());
+        DoubleConstant tolerance = child.addConstantAsDouble(name + " tolerance", initialPIDSettings.getTolerance());
+        DoubleConstant waitTime = child.addConstantAsDouble(name + " wait time", initialPIDSettings.getWaitTime());
+        return new PIDSettings(kP::getAsDouble, kI::getAsDouble, kD::getAsDouble, iZone::getAsDouble,
+                tolerance::getAsDouble, waitTime::getAsDouble).withChangeCount(() -> kP.getChangeCount()
+                + kI.getChangeCount() + kD.getChangeCount() + iZone.getChangeCount() + tolerance.getChangeCount()
+                + waitTime.getChangeCount());
     }
 
     default PIDSettings addPIDNamespace(String name) {
         return addPIDNamespace(name, PIDSettings.EMPTY_PID_SETTINGS);
     }
 
+    /**
+     * Changes the values of a set of {@link PIDSettings} that was added using
+     * {@link #addPIDNamespace(String, PIDSettings)}, as if they were edited through a {@link NetworkTable}s UI.
+     *
+     * @param name        the name that was given to the settings
+     * @param pidSettings the new values
+     */
+    default void setPIDNamespace(String name, PIDSettings pidSettings) {
+        ChildNamespace child = this.addChild(name + " pid");
+        child.setConstantDouble(name + " kP", pidSettings.getkP());
+        child.setConstantDouble(name + " kI", pidSettings.getkI());
+        child.setConstantDouble(name + " kD", pidSettings.getkD());
+        child.setConstantDouble(name + " i zone", pidSettings.getIZone());
+        child.setConstantDouble(name + " tolerance", pidSettings.getTolerance());
+        child.setConstantDouble(name + " wait time", pidSettings.getWaitTime());
+    }
+
+    /**
+     * Adds a set of {@link PIDSettings} values to the namespace as a single array constant, in the order kP, kI, kD,
+     * i zone, tolerance and wait time. Unlike {@link #addPIDNamespace(String, PIDSettings)}, the values can be read
+     * together using {@link PIDSettings#get(double[])}, so an edit is never applied halfway.
+     *
+     * @param name               the name to be given to the settings
+     * @param initialPIDSettings the initial values for the PID settings to be added
+     * @return pid settings with the values from the network tables
+     */
+    default PIDSettings addPIDArray(String name, PIDSettings initialPIDSettings) {
+        double[] initialValues = new double[PIDSettings.GROUP_SIZE];
+        initialPIDSettings.get(initialValues);
+        return PIDSettings.fromGroup(addConstantArray(name + " pid", initialValues));
+    }
+
+    default PIDSettings addPIDArray(String name) {
+        return addPIDArray(name, PIDSettings.EMPTY_PID_SETTINGS);
+    }
+
+    /**
+     * Changes the values of a set of {@link PIDSettings} that was added using
+     * {@link #addPIDArray(String, PIDSettings)}, as if they were edited through a {@link NetworkTable}s UI.
+     *
+     * @param name        the name that was given to the settings
+     * @param pidSettings the new values
+     */
+    default void setPIDArray(String name, PIDSettings pidSettings) {
+        double[] values = new double[PIDSettings.GROUP_SIZE];
+        pidSettings.get(values);
+        setConstantArray(name + " pid", values);
+    }
+
     /**
      * Adds a set of {@link FeedForwardSettings} values to a designated {@link ChildNamespace}.
      *
@@ -220,17 +493,105 @@ public interface Namespace {
      */
     default FeedForwardSettings addFeedForwardNamespace(String name, FeedForwardSettings initialFeedForwardSettings) {
         ChildNamespace child = this.addChild(name + " feed forward");
-        Supplier<Double> kS = child.addConstantDouble(name + " kS", initialFeedForwardSettings.getkS());
-        Supplier<Double> kV = child.addConstantDouble(name + " kV", initialFeedForwardSettings.getkV());
-        Supplier<Double> kA = child.addConstantDouble(name + " kA", initialFeedForwardSettings.getkA());
-        Supplier<Double> kG = child.addConstantDouble(name + " kG", initialFeedForwardSettings.getkG());
-        return new FeedForwardSettings(kS, kV, kA, kG, initialFeedForwardSettings.getControlMode());
+        DoubleConstant kS = child.addConstantAsDouble(name + " kS", initialFeedForwardSettings.getkS());
+        DoubleConstant kV = child.addConstantAsDouble(name + " kV", initialFeedForwardSettings.getkV());
+        DoubleConstant kA = child.addConstantAsDouble(name + " kA", initialFeedForwardSettings.getkA());
+        DoubleConstant kG = child.addConstantAsDouble(name + " kG", initialFeedForwardSettings.getkG());
+        return new FeedForwardSettings(kS::getAsDouble, kV::getAsDouble, kA::getAsDouble, kG::getAsDouble,
+                initialFeedForwardSettings.getControlMode()).withChangeCount(() -> kS.getChangeCount()
+                + kV.getChangeCount() + kA.getChangeCount() + kG.getChangeCount());
     }
 
     default FeedForwardSettings addFeedForwardNamespace(String name, FeedForwardController.ControlMode controlMode) {
         return addFeedForwardNamespace(name, new FeedForwardSettings(controlMode));
     }
 
+    /**
+     * Changes the values of a set of {@link FeedForwardSettings} that was added using
+     * {@link #addFeedForwardNamespace(String, FeedForwardSettings)}, as if they were edited through a
+     * {@link NetworkTable}s UI.
+     *
+     * @param name                the name that was given to the settings
+     * @param feedForwardSettings the new values
+     */
+    default void setFeedForwardNamespace(String name, FeedForwardSettings feedForwardSettings) {
+        ChildNamespace child = this.addChild(name + " feed forward");
+        child.setConstantDouble(name + " kS", feedForwardSettings.getkS());
+        child.setConstantDouble(name + " kV", feedForwardSettings.getkV());
+        child.setConstantDouble(name + " kA", feedForwardSettings.getkA());
+        child.setConstantDouble(name + " kG", feedForwardSettings.getkG());
+    }
+
+    /**
+     * Adds a set of {@link FeedForwardSettings} values to the namespace as a single array constant, in the order kS,
+     * kV, kA and kG. Unlike {@link #addFeedForwardNamespace(String, FeedForwardSettings)}, the values can be read
+     * together using {@link FeedForwardSettings#get(double[])}, so an edit is never applied halfway.
+     *
+     * @param name                       the name to be given to the settings
+     * @param initialFeedForwardSettings the initial feed forward settings to be added
+     * @return feed forward settings with the values from the network tables
+     */
+    default FeedForwardSettings addFeedForwardArray(String name, FeedForwardSettings initialFeedForwardSettings) {
+        double[] initialValues = new double[FeedForwardSettings.GROUP_SIZE];
+        initialFeedForwardSettings.get(initialValues);
+        return FeedForwardSettings.fromGroup(addConstantArray(name + " feed forward", initialValues),
+                initialFeedForwardSettings.getControlMode());
+    }
+
+    default FeedForwardSettings addFeedForwardArray(String name, FeedForwardController.ControlMode controlMode) {
+        return addFeedForwardArray(name, new FeedForwardSettings(controlMode));
+    }
+
+    /**
+     * Changes the values of a set of {@link FeedForwardSettings} that was added using
+     * {@link #addFeedForwardArray(String, FeedForwardSettings)}, as if they were edited through a
+     * {@link NetworkTable}s UI.
+     *
+     * @param name                the name that was given to the settings
+     * @param feedForwardSettings the new values
+     */
+    default void setFeedForwardArray(String name, FeedForwardSettings feedForwardSettings) {
+        double[] values = new double[FeedForwardSettings.GROUP_SIZE];
+        feedForwardSettings.get(values);
+        setConstantArray(name + " feed forward", values);
+    }
+
+    /**
+     * Sets whether the namespace's fields should only be published when their values change. All fields are still
+     * published once every {@code refreshPeriod} updates, so dashboards that reconnect do not miss values.
+     *
+     * @param enabled       whether fields should only be published when their values change
+     * @param refreshPeriod the number of updates between two forced publishes of all fields
+     */
+    void setChangeDetection(boolean enabled, int refreshPeriod);
+
+    /**
+     * Sets whether the namespace's fields should only be published when their values change, with a forced publish
+     * of all fields every {@link #DEFAULT_REFRESH_PERIOD} updates.
+     *
+     * @param enabled whether fields should only be published when their values change
+     */
+    default void setChangeDetection(boolean enabled) {
+        setChangeDetection(enabled, DEFAULT_REFRESH_PERIOD);
+    }
+
+    /**
+     * Sets a {@link SnapshotPublisher} that sends the namespace's fields from a background thread. While it is set,
+     * {@link #update()} only samples the fields' values into a snapshot, and the publisher thread sends them to the
+     * {@link NetworkTable}s. {@link Sendable}s are still updated on the calling thread.
+     *
+     * @param publisher the publisher that should send the namespace's fields, or {@code null} to send them directly
+     *                  on {@link #update()}
+     */
+    void setSnapshotPublisher(SnapshotPublisher publisher);
+
+    /**
+     * Sets a {@link NamespaceProfiler} that records how long the namespace's updates and suppliers take.
+     *
+     * @param profiler the profiler to record the update times, or {@code null} to stop profiling
+     */
+    void setProfiler(NamespaceProfiler profiler);
+
     /**
      * Updates the namespace.
      */
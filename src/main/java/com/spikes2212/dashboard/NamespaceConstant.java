@@ -0,0 +1,88 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.Subscriber;
+
+import java.util.EnumSet;
+
+/**
+ * A value of a {@link Namespace} which can only be changed through the NetworkTables, such as a tuning constant.
+ *
+ * <p>The value is cached in a field that is updated by a NetworkTables listener whenever it is edited, so reading it
+ * does not access the NetworkTables at all.</p>
+ */
+public abstract class NamespaceConstant implements AutoCloseable {
+
+    /**
+     * The subscriber that keeps the constant's topic alive.
+     */
+    private final Subscriber subscriber;
+
+    /**
+     * The handle of the listener that updates the cached value, or 0 if it was not registered yet.
+     */
+    private int listenerHandle;
+
+    /**
+     * The number of times the value was changed since the constant was created. Only written by the NetworkTables
+     * listener thread.
+     */
+    private volatile int changeCount;
+
+    protected NamespaceConstant(Subscriber subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Registers the listener that updates the cached value. Called by the {@link Namespace} once the constant is fully
+     * constructed, so the listener never sees a subclass whose fields were not assigned yet. The current value is
+     * delivered again right away, so an edit made while the constant was constructed is not lost.
+     */
+    final void listen() {
+        if (listenerHandle != 0) return;
+        listenerHandle = NetworkTableInstance.getDefault().addListener(subscriber,
+                EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate), this::onEvent);
+    }
+
+    /**
+     * Stores a new value of the constant. Called on the NetworkTables listener thread.
+     *
+     * @param value the new value
+     * @return whether the value had a matching type and was stored
+     */
+    protected abstract boolean accept(NetworkTableValue value);
+
+    /**
+     * @return the full name of the constant's topic
+     */
+    public String getName() {
+        return subscriber.getTopic().getName();
+    }
+
+    /**
+     * @return the number of times the value was changed through the NetworkTables since the constant was created
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Stops listening to changes of the constant and removes it from the {@link TuningSnapshot}. Its last value stays
+     * available.
+     */
+    @Override
+    public void close() {
+        if (listenerHandle != 0) NetworkTableInstance.getDefault().removeListener(listenerHandle);
+        listenerHandle = 0;
+        TuningSnapshot.getInstance().untrack(this);
+        subscriber.close();
+    }
+
+    private void onEvent(NetworkTableEvent event) {
+        if (event.valueData != null && accept(event.valueData.value)) {
+            changeCount++;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.spikes2212.dashboard;
+
+import com.spikes2212.util.LatencyHistogram;
+
+/**
+ * Records how long a {@link RootNamespace}'s updates take, split into the phases of the update, along with the
+ * namespace's slowest suppliers.
+ *
+ * <p>A profiler is attached with {@link Namespace#setProfiler(NamespaceProfiler)}. While no profiler is attached, the
+ * namespace does not read the clock at all.</p>
+ */
+public class NamespaceProfiler {
+
+    /**
+     * The default number of slowest suppliers that are kept.
+     */
+    public static final int DEFAULT_SLOWEST_COUNT = 5;
+
+    private static final double NANOS_PER_MICRO = 1000;
+
+    private final LatencyHistogram numbers;
+    private final LatencyHistogram strings;
+    private final LatencyHistogram booleans;
+    private final LatencyHistogram sendables;
+    private final LatencyHistogram total;
+
+    /**
+     * The keys of the slowest suppliers and their longest sample times, ordered from the slowest.
+     */
+    private final String[] slowestKeys;
+    private final long[] slowestNanos;
+
+    public NamespaceProfiler(int slowestCount) {
+        numbers = new LatencyHistogram();
+        strings = new LatencyHistogram();
+        booleans = new LatencyHistogram();
+        sendables = new LatencyHistogram();
+        total = new LatencyHistogram();
+        slowestKeys = new String[slowestCount];
+        slowestNanos = new long[slowestCount];
+    }
+
+    public NamespaceProfiler() {
+        this(DEFAULT_SLOWEST_COUNT);
+    }
+
+    void recordNumbers(long nanos) {
+        numbers.record(nanos);
+    }
+
+    void recordStrings(long nanos) {
+        strings.record(nanos);
+    }
+
+    void recordBooleans(long nanos) {
+        booleans.record(nanos);
+    }
+
+    void recordSendables(long nanos) {
+        sendables.record(nanos);
+    }
+
+    void recordTotal(long nanos) {
+        total.record(nanos);
+    }
+
+    /**
+     * Records the time a single supplier took, keeping it if it is one of the slowest.
+     *
+     * @param key   the key of the supplier's field
+     * @param nanos the time the supplier took in nanoseconds
+     */
+    void recordSupplier(String key, long nanos) {
+        int last = slowestNanos.length - 1;
+        if (last < 0 || nanos <= slowestNanos[last]) return;
+        int position = last;
+        for (int i = 0; i <= last; i++) {
+            if (key.equals(slowestKeys[i])) {
+                if (nanos <= slowestNanos[i]) return;
+                position = i;
+                break;
+            }
+        }
+        while (position > 0 && slowestNanos[position - 1] < nanos) {
+            slowestKeys[position] = slowestKeys[position - 1];
+            slowestNanos[position] = slowestNanos[position - 1];
+            position--;
+        }
+        slowestKeys[position] = key;
+        slowestNanos[position] = nanos;
+    }
+
+    public LatencyHistogram getNumbers() {
+        return numbers;
+    }
+
+    public LatencyHistogram getStrings() {
+        return strings;
+    }
+
+    public LatencyHistogram getBooleans() {
+        return booleans;
+    }
+
+    public LatencyHistogram getSendables() {
+        return sendables;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /**
+     * @param rank the supplier's rank, where 0 is the slowest
+     * @return the key of the supplier's field, or {@code null} if there is no supplier with this rank
+     */
+    public String getSlowestKey(int rank) {
+        return slowestKeys[rank];
+    }
+
+    /**
+     * @param rank the supplier's rank, where 0 is the slowest
+     * @return the longest time the supplier took in microseconds
+     */
+    public double getSlowestTime(int rank) {
+        return slowestNanos[rank] / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Clears all recorded times.
+     */
+    public void reset() {
+        numbers.reset();
+        strings.reset();
+        booleans.reset();
+        sendables.reset();
+        total.reset();
+        for (int i = 0; i < slowestKeys.length; i++) {
+            slowestKeys[i] = null;
+            slowestNanos[i] = 0;
+        }
+    }
+
+    /**
+     * Publishes the recorded times to the given diagnostics namespace. The values are published at
+     * {@link UpdateRate#SLOW}.
+     *
+     * @param namespace the namespace to publish the times to
+     */
+    public void configureDashboard(Namespace namespace) {
+        putHistogram(namespace.addChild("total"), total);
+        putHistogram(namespace.addChild("numbers"), numbers);
+        putHistogram(namespace.addChild("strings"), strings);
+        putHistogram(namespace.addChild("booleans"), booleans);
+        putHistogram(namespace.addChild("sendables"), sendables);
+        ChildNamespace slowest = namespace.addChild("slowest suppliers");
+        for (int i = 0; i < slowestKeys.length; i++) {
+            int rank = i;
+            slowest.putString(rank + " key", () -> String.valueOf(slowestKeys[rank]), UpdateRate.SLOW);
+            slowest.putNumber(rank + " time us", () -> getSlowestTime(rank), UpdateRate.SLOW);
+        }
+        namespace.putRunnable("reset", this::reset);
+    }
+
+    private static void putHistogram(Namespace namespace, LatencyHistogram histogram) {
+        namespace.putNumber("mean us", histogram::getMean, UpdateRate.SLOW);
+        namespace.putNumber("p95 us", () -> histogram.getPercentile(0.95), UpdateRate.SLOW);
+        namespace.putNumber("max us", histogram::getMax, UpdateRate.SLOW);
+    }
+}
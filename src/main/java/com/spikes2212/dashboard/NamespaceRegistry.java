@@ -0,0 +1,210 @@
+package com.spikes2212.dashboard;
+
+import com.spikes2212.command.DashboardedSubsystem;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of every {@link RootNamespace} and updates them all in a single pass, followed by a single flush of the
+ * {@link NetworkTableInstance}.
+ *
+ * <p>Batched updates are opt-in: once {@link #setBatchedUpdates(boolean)} is enabled, {@link DashboardedSubsystem}s
+ * stop updating their own namespaces and {@link #update()} should be called once per loop, usually in
+ * {@code robotPeriodic()}. A time budget can be set to bound the time spent on the dashboard in every loop; namespaces
+ * that do not fit in a loop's budget are updated first on the next one.</p>
+ *
+ * <p>The registry only holds weak references to the namespaces, so a namespace that is no longer used elsewhere is
+ * dropped from it once it is garbage collected. {@link RootNamespace#close()} removes it right away.</p>
+ */
+public class NamespaceRegistry {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static NamespaceRegistry instance;
+
+    /**
+     * The registered namespaces in registration order, for updating them in turns.
+     */
+    private final List<NamespaceReference> namespaces;
+
+    /**
+     * The registered namespaces, compared by identity, for checking whether a namespace is registered.
+     */
+    private final Set<NamespaceReference> registered;
+
+    /**
+     * The queue the references of garbage collected namespaces are added to.
+     */
+    private final ReferenceQueue<Namespace> collected;
+
+    /**
+     * Whether the namespaces are updated by this registry rather than by their owners.
+     */
+    private boolean batchedUpdates;
+
+    /**
+     * The maximal time to spend updating namespaces in a single pass, in nanoseconds, or 0 for no limit.
+     */
+    private long timeBudgetNanos;
+
+    /**
+     * The index of the namespace the next pass starts from.
+     */
+    private int nextIndex;
+
+    /**
+     * The time the last pass took, in seconds.
+     */
+    private double lastUpdateTime;
+
+    /**
+     * The number of namespaces that were updated on the last pass.
+     */
+    private int lastUpdatedCount;
+
+    private NamespaceRegistry() {
+        namespaces = new ArrayList<>();
+        registered = new HashSet<>();
+        collected = new ReferenceQueue<>();
+    }
+
+    public static NamespaceRegistry getInstance() {
+        if (instance == null) {
+            instance = new NamespaceRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a namespace to the registry. {@link RootNamespace}s are added automatically when they are constructed.
+     *
+     * @param namespace the namespace to add
+     */
+    public void register(Namespace namespace) {
+        removeCollected();
+        NamespaceReference reference = new NamespaceReference(namespace, collected);
+        if (registered.add(reference)) namespaces.add(reference);
+    }
+
+    /**
+     * Removes a namespace from the registry.
+     *
+     * @param namespace the namespace to remove
+     */
+    public void unregister(Namespace namespace) {
+        NamespaceReference reference = new NamespaceReference(namespace, null);
+        if (registered.remove(reference)) namespaces.remove(reference);
+    }
+
+    /**
+     * Sets whether the namespaces should be updated by {@link #update()} rather than by their owners.
+     *
+     * @param batchedUpdates whether the registry updates the namespaces
+     */
+    public void setBatchedUpdates(boolean batchedUpdates) {
+        this.batchedUpdates = batchedUpdates;
+    }
+
+    public boolean isBatchedUpdates() {
+        return batchedUpdates;
+    }
+
+    /**
+     * Sets the maximal time to spend in a single call to {@link #update()}. At least one namespace is updated on every
+     * call.
+     *
+     * @param timeBudget the time budget in seconds, or 0 for no limit
+     */
+    public void setTimeBudget(double timeBudget) {
+        this.timeBudgetNanos = (long) (timeBudget * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Updates all the registered namespaces, or as many as fit in the time budget, and flushes the
+     * {@link NetworkTableInstance} once.
+     */
+    public void update() {
+        long start = System.nanoTime();
+        removeCollected();
+        int count = namespaces.size();
+        int updated = 0;
+        while (updated < count) {
+            if (nextIndex >= count) nextIndex = 0;
+            Namespace namespace = namespaces.get(nextIndex++).get();
+            if (namespace != null) namespace.update();
+            updated++;
+            if (timeBudgetNanos > 0 && System.nanoTime() - start >= timeBudgetNanos) break;
+        }
+        NetworkTableInstance.getDefault().flush();
+        lastUpdatedCount = updated;
+        lastUpdateTime = (System.nanoTime() - start) / NANOS_PER_SECOND;
+    }
+
+    /**
+     * @return the time the last call to {@link #update()} took, including the flush, in seconds
+     */
+    public double getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * @return the number of namespaces that were updated on the last call to {@link #update()}
+     */
+    public int getLastUpdatedCount() {
+        return lastUpdatedCount;
+    }
+
+    /**
+     * @return the number of registered namespaces
+     */
+    public int size() {
+        removeCollected();
+        return namespaces.size();
+    }
+
+    /**
+     * Removes the namespaces that were garbage collected.
+     */
+    private void removeCollected() {
+        Reference<? extends Namespace> reference;
+        while ((reference = collected.poll()) != null) {
+            if (registered.remove(reference)) namespaces.remove(reference);
+        }
+    }
+
+    /**
+     * A weak reference to a namespace, which is equal to another one only if they refer to the same namespace.
+     */
+    private static final class NamespaceReference extends WeakReference<Namespace> {
+
+        /**
+         * The identity hash code of the namespace, kept after it is collected.
+         */
+        private final int hash;
+
+        private NamespaceReference(Namespace namespace, ReferenceQueue<Namespace> queue) {
+            super(namespace, queue);
+            this.hash = System.identityHashCode(namespace);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NamespaceReference other)) return false;
+            Namespace namespace = get();
+            return namespace != null && namespace == other.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.spikes2212.dashboard;
 
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableEvent;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.RawSubscriber;
+import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.util.sendable.SendableRegistry;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilderImpl;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 @Deprecated (since = "2026", forRemoval = true)
@@ -17,54 +28,236 @@ import java.util.function.Supplier;
 /**
  * This class represents a "root directory" in the namespace where other {@link ChildNamespace} and values can be saved.
  */
-public class RootNamespace implements Namespace {
+public class RootNamespace implements Namespace, AutoCloseable {
 
-    protected final Map<String, Supplier<String>> stringFields;
-    protected final Map<String, Supplier<? extends Number>> numberFields;
-    protected final Map<String, Supplier<Boolean>> booleanFields;
+    protected final Map<String, StringField> stringFields;
+    protected final Map<String, NumberField> numberFields;
+    protected final Map<String, BooleanField> booleanFields;
     protected final NetworkTable table;
     protected final String name;
 
-    private final Map<String, Sendable> tablesToData;
+    /**
+     * The {@link Sendable}s of the namespace, by their full path.
+     */
+    private final Map<String, SendableField> sendableFields;
+
+    /**
+     * The constants of the namespace, by the full names of their topics.
+     */
+    private final Map<String, NamespaceConstant> constants;
+
+    /**
+     * The fields of the namespace in insertion order, so they can be updated without allocating iterators.
+     */
+    private final List<StringField> stringFieldList;
+    private final List<NumberField> numberFieldList;
+    private final List<BooleanField> booleanFieldList;
+    private final List<SendableField> sendableFieldList;
+
+    /**
+     * Whether fields are only published when their values change.
+     */
+    private boolean changeDetection;
+
+    /**
+     * The number of updates between two forced publishes of all fields while change detection is enabled.
+     */
+    private int refreshPeriod;
+
+    /**
+     * The number of times the namespace was updated.
+     */
+    private long updateCount;
+
+    /**
+     * The number of fields added so far at each {@link UpdateRate}, used to spread them across updates.
+     */
+    private final int[] fieldsPerRate;
+
+    /**
+     * The publisher that sends the sampled fields from a background thread, or {@code null} if they are sent directly.
+     */
+    private SnapshotPublisher snapshotPublisher;
+
+    /**
+     * The buffer the fields are sampled into while a {@link SnapshotPublisher} is set.
+     */
+    private SnapshotBuffer snapshotBuffer;
+
+    /**
+     * The profiler that records the update times, or {@code null} if the updates are not profiled.
+     */
+    private NamespaceProfiler profiler;
+
+    /**
+     * Whether this namespace allocated its storage, rather than sharing the storage of a root namespace.
+     */
+    private final boolean ownsStorage;
 
     public RootNamespace(String name) {
+        this(name, null);
+        NamespaceRegistry.getInstance().register(this);
+    }
+
+    /**
+     * Constructs a namespace that shares the storage of the given root namespace instead of allocating its own. Used
+     * by {@link ChildNamespace}s, whose fields are stored and updated by their root.
+     *
+     * @param name the name of the namespace
+     * @param root the namespace whose storage is shared, or {@code null} to allocate new storage
+     */
+    protected RootNamespace(String name, RootNamespace root) {
         this.name = name;
-        NetworkTableInstance inst = NetworkTableInstance.getDefault();
-        this.table = inst.getTable(this.name);
-        stringFields = new HashMap<>();
-        numberFields = new HashMap<>();
-        booleanFields = new HashMap<>();
-        tablesToData = new HashMap<>();
+        this.ownsStorage = root == null;
+        if (root == null) {
+            NetworkTableInstance inst = NetworkTableInstance.getDefault();
+            this.table = inst.getTable(this.name);
+            stringFields = new HashMap<>();
+            numberFields = new HashMap<>();
+            booleanFields = new HashMap<>();
+            sendableFields = new HashMap<>();
+            constants = new HashMap<>();
+            stringFieldList = new ArrayList<>();
+            numberFieldList = new ArrayList<>();
+            booleanFieldList = new ArrayList<>();
+            sendableFieldList = new ArrayList<>();
+            fieldsPerRate = new int[UpdateRate.values().length];
+        } else {
+            this.table = root.table;
+            stringFields = root.stringFields;
+            numberFields = root.numberFields;
+            booleanFields = root.booleanFields;
+            sendableFields = root.sendableFields;
+            constants = root.constants;
+            stringFieldList = root.stringFieldList;
+            numberFieldList = root.numberFieldList;
+            booleanFieldList = root.booleanFieldList;
+            sendableFieldList = root.sendableFieldList;
+            fieldsPerRate = root.fieldsPerRate;
+        }
+        changeDetection = false;
+        refreshPeriod = DEFAULT_REFRESH_PERIOD;
     }
 
     @Override
-    public Supplier<Double> addConstantDouble(String name, double value) {
+    public DoubleConstant addConstantAsDouble(String name, double value) {
         NetworkTableEntry entry = table.getEntry(name);
-        if (!table.containsKey(name)) {
+        DoubleConstant existing = getConstant(entry.getName(), DoubleConstant.class);
+        if (existing != null) return existing;
+        boolean persisted = table.containsKey(name);
+        Double snapshotValue = TuningSnapshot.getInstance().getDouble(entry.getName(), persisted);
+        if (snapshotValue != null) {
+            value = snapshotValue;
+            entry.setDouble(value);
+            entry.setPersistent();
+        } else if (!persisted) {
             entry.setDouble(value);
             entry.setPersistent();
         }
-        return () -> entry.getDouble(value);
+        DoubleConstant constant = new DoubleConstant(table.getDoubleTopic(name), value);
+        addConstant(constant);
+        return constant;
     }
 
     @Override
-    public Supplier<Integer> addConstantInt(String name, int value) {
+    public IntConstant addConstantAsInt(String name, int value) {
         NetworkTableEntry entry = table.getEntry(name);
-        if (!table.containsKey(name)) {
+        IntConstant existing = getConstant(entry.getName(), IntConstant.class);
+        if (existing != null) return existing;
+        boolean persisted = table.containsKey(name);
+        Double snapshotValue = TuningSnapshot.getInstance().getDouble(entry.getName(), persisted);
+        if (snapshotValue != null) {
+            value = snapshotValue.intValue();
+            entry.setNumber(value);
+            entry.setPersistent();
+        } else if (!persisted) {
             entry.setNumber(value);
             entry.setPersistent();
         }
-        return () -> entry.getNumber(value).intValue();
+        IntConstant constant = new IntConstant(table.getDoubleTopic(name), value);
+        addConstant(constant);
+        return constant;
     }
 
     @Override
-    public Supplier<String> addConstantString(String name, String value) {
+    public StringConstant addConstantString(String name, String value) {
         NetworkTableEntry entry = table.getEntry(name);
-        if (!table.containsKey(name)) {
+        StringConstant existing = getConstant(entry.getName(), StringConstant.class);
+        if (existing != null) return existing;
+        boolean persisted = table.containsKey(name);
+        String snapshotValue = TuningSnapshot.getInstance().getString(entry.getName(), persisted);
+        if (snapshotValue != null) {
+            value = snapshotValue;
+            entry.setString(value);
+            entry.setPersistent();
+        } else if (!persisted) {
             entry.setString(value);
             entry.setPersistent();
         }
-        return () -> entry.getString(value);
+        StringConstant constant = new StringConstant(table.getStringTopic(name), value);
+        addConstant(constant);
+        return constant;
+    }
+
+    @Override
+    public DoubleArrayConstant addConstantArray(String name, double[] value) {
+        NetworkTableEntry entry = table.getEntry(name);
+        DoubleArrayConstant existing = getConstant(entry.getName(), DoubleArrayConstant.class);
+        if (existing != null) {
+            if (existing.length() != value.length) {
+                throw new IllegalArgumentException("constant " + entry.getName() + " was already added with " +
+                        existing.length() + " values");
+            }
+            return existing;
+        }
+        boolean persisted = table.containsKey(name);
+        double[] snapshotValue = TuningSnapshot.getInstance().getDoubleArray(entry.getName(), persisted);
+        if (snapshotValue != null && snapshotValue.length == value.length) {
+            value = snapshotValue;
+            entry.setDoubleArray(value);
+            entry.setPersistent();
+        } else if (!persisted) {
+            entry.setDoubleArray(value);
+            entry.setPersistent();
+        }
+        DoubleArrayConstant constant = new DoubleArrayConstant(table.getDoubleArrayTopic(name), value);
+        addConstant(constant);
+        return constant;
+    }
+
+    /**
+     * @param name the full name of the constant's topic
+     * @param type the type of the constant
+     * @return the constant that was already added with the given name, or {@code null} if there is none
+     * @throws IllegalArgumentException if a constant of another type was added with the name
+     */
+    private <T extends NamespaceConstant> T getConstant(String name, Class<T> type) {
+        NamespaceConstant constant = constants.get(name);
+        if (constant == null) return null;
+        if (!type.isInstance(constant)) {
+            throw new IllegalArgumentException("constant " + name + " was already added as a " +
+                    constant.getClass().getSimpleName());
+        }
+        return type.cast(constant);
+    }
+
+    /**
+     * Starts listening to a new constant and stores it, so adding it again returns it.
+     */
+    private void addConstant(NamespaceConstant constant) {
+        constant.listen();
+        constants.put(constant.getName(), constant);
+        TuningSnapshot.getInstance().track(constant);
+    }
+
+    @Override
+    public void setConstantDouble(String name, double value) {
+        table.getEntry(name).setDouble(value);
+    }
+
+    @Override
+    public void setConstantArray(String name, double[] value) {
+        table.getEntry(name).setDoubleArray(value);
     }
 
     @Override
@@ -73,32 +266,48 @@ public class RootNamespace implements Namespace {
     }
 
     @Override
-    public void putData(String key, Sendable value) {
-        Sendable sddata = tablesToData.get(key);
-        if (sddata == null || sddata != value) {
-            tablesToData.put(key, value);
-            NetworkTable dataTable = table.getSubTable(key);
-            SendableBuilderImpl builder = new SendableBuilderImpl();
-            builder.setTable(dataTable);
+    public void putData(String key, Sendable value, UpdateRate updateRate) {
+        SendableField field = sendableFields.get(key);
+        if (field != null && field.sendable == value && field.updateRate == updateRate) return;
+        SendableBuilderImpl builder;
+        SubscriberWatch subscribers;
+        if (field == null) {
+            builder = new SendableBuilderImpl();
+            builder.setTable(table.getSubTable(key));
+            subscribers = new SubscriberWatch(builder.getTable());
+        } else {
+            sendableFieldList.remove(field);
+            builder = field.builder;
+            subscribers = field.subscribers;
+            if (field.sendable != value) {
+                builder.stopListeners();
+                builder.clearProperties();
+            }
+        }
+        if (field == null || field.sendable != value) {
             SendableRegistry.publish(value, builder);
             builder.startListeners();
-            dataTable.getEntry(".name").setString(key);
+            builder.getTable().getEntry(".name").setString(key);
         }
+        field = new SendableField(key, value, builder, subscribers, updateRate, nextPhase(updateRate));
+        sendableFields.put(key, field);
+        sendableFieldList.add(field);
     }
 
     @Override
     public Sendable getSendable(String key) {
-        NetworkTableEntry entry = this.table.getEntry(key);
-        NetworkTableValue value = entry.getValue();
-        return (Sendable) value.getValue();
+        SendableField field = sendableFields.get(key);
+        return field == null ? null : field.sendable;
     }
 
     @Override
-    public void putString(String key, Supplier<String> value) {
+    public void putString(String key, Supplier<String> value, UpdateRate updateRate) {
         remove(key);
-        NetworkTableEntry entry = this.table.getEntry(key);
-        entry.setString(value.get());
-        stringFields.put(key, value);
+        StringPublisher publisher = table.getStringTopic(key).publish();
+        StringField field = new StringField(key, value, publisher, updateRate, nextPhase(updateRate));
+        field.publish(value.get(), updateCount, null);
+        stringFields.put(key, field);
+        stringFieldList.add(field);
     }
 
     @Override
@@ -109,11 +318,14 @@ public class RootNamespace implements Namespace {
     }
 
     @Override
-    public void putNumber(String key, Supplier<? extends Number> value) {
+    public void putNumber(String key, DoubleSupplier value, double epsilon, UpdateRate updateRate) {
         remove(key);
-        NetworkTableEntry entry = this.table.getEntry(key);
-        entry.setNumber(value.get());
-        numberFields.put(key, value);
+        DoublePublisher publisher = table.getDoubleTopic(key).publish();
+        NumberField field = new NumberField(key, value, publisher, epsilon, updateRate,
+                nextPhase(updateRate));
+        field.publish(value.getAsDouble(), updateCount, null);
+        numberFields.put(key, field);
+        numberFieldList.add(field);
     }
 
     @Override
@@ -124,11 +336,13 @@ public class RootNamespace implements Namespace {
     }
 
     @Override
-    public void putBoolean(String key, Supplier<Boolean> value) {
+    public void putBoolean(String key, BooleanSupplier value, UpdateRate updateRate) {
         remove(key);
-        NetworkTableEntry entry = this.table.getEntry(key);
-        entry.setBoolean(value.get());
-        booleanFields.put(key, value);
+        BooleanPublisher publisher = table.getBooleanTopic(key).publish();
+        BooleanField field = new BooleanField(key, value, publisher, updateRate, nextPhase(updateRate));
+        field.publish(value.getAsBoolean(), updateCount, null);
+        booleanFields.put(key, field);
+        booleanFieldList.add(field);
     }
 
     @Override
@@ -138,44 +352,378 @@ public class RootNamespace implements Namespace {
         return value.getBoolean();
     }
 
+    /**
+     * Removes the field with the given key from the namespace and closes its publisher.
+     *
+     * @param name the key of the field
+     */
     public void remove(String name) {
-        stringFields.remove(name);
-        numberFields.remove(name);
-        booleanFields.remove(name);
+        StringField stringField = stringFields.remove(name);
+        if (stringField != null) {
+            stringFieldList.remove(stringField);
+            stringField.publisher.close();
+        }
+        NumberField numberField = numberFields.remove(name);
+        if (numberField != null) {
+            numberFieldList.remove(numberField);
+            numberField.publisher.close();
+        }
+        BooleanField booleanField = booleanFields.remove(name);
+        if (booleanField != null) {
+            booleanFieldList.remove(booleanField);
+            booleanField.publisher.close();
+        }
+    }
+
+    /**
+     * Removes the namespace from the {@link NamespaceRegistry} and closes the publishers of all its fields and
+     * {@link Sendable}s, and all its constants. A {@link ChildNamespace} shares the storage of its root, so closing it
+     * leaves the fields and constants to be closed with the root.
+     */
+    @Override
+    public void close() {
+        NamespaceRegistry.getInstance().unregister(this);
+        if (!ownsStorage) return;
+        setSnapshotPublisher(null);
+        stringFieldList.forEach(field -> field.publisher.close());
+        numberFieldList.forEach(field -> field.publisher.close());
+        booleanFieldList.forEach(field -> field.publisher.close());
+        sendableFieldList.forEach(field -> {
+            field.builder.close();
+            field.subscribers.close();
+        });
+        constants.values().forEach(NamespaceConstant::close);
+        constants.clear();
+        stringFields.clear();
+        numberFields.clear();
+        booleanFields.clear();
+        sendableFields.clear();
+        stringFieldList.clear();
+        numberFieldList.clear();
+        booleanFieldList.clear();
+        sendableFieldList.clear();
+    }
+
+    @Override
+    public void setChangeDetection(boolean enabled, int refreshPeriod) {
+        if (refreshPeriod <= 0) throw new IllegalArgumentException("The refresh period must be positive.");
+        this.changeDetection = enabled;
+        this.refreshPeriod = refreshPeriod;
+    }
+
+    @Override
+    public void setSnapshotPublisher(SnapshotPublisher publisher) {
+        if (snapshotPublisher != null) snapshotPublisher.unregister(snapshotBuffer);
+        snapshotPublisher = publisher;
+        snapshotBuffer = null;
+        if (publisher != null) {
+            snapshotBuffer = new SnapshotBuffer();
+            publisher.register(snapshotBuffer);
+        }
+    }
+
+    @Override
+    public void setProfiler(NamespaceProfiler profiler) {
+        this.profiler = profiler;
     }
 
     @Override
     public void update() {
+        updateCount++;
+        if (profiler == null) {
+            updateBoolean();
+            updateNumber();
+            updateString();
+            if (snapshotBuffer != null) snapshotBuffer.commit();
+            updateSendable();
+        } else {
+            updateProfiled(profiler);
+        }
+    }
+
+    private void updateProfiled(NamespaceProfiler profiler) {
+        long start = System.nanoTime();
         updateBoolean();
+        long booleansEnd = System.nanoTime();
         updateNumber();
+        long numbersEnd = System.nanoTime();
         updateString();
+        long stringsEnd = System.nanoTime();
+        if (snapshotBuffer != null) snapshotBuffer.commit();
+        long commitEnd = System.nanoTime();
         updateSendable();
+        long end = System.nanoTime();
+        profiler.recordBooleans(booleansEnd - start);
+        profiler.recordNumbers(numbersEnd - booleansEnd);
+        profiler.recordStrings(stringsEnd - numbersEnd);
+        profiler.recordSendables(end - commitEnd);
+        profiler.recordTotal(end - start);
+    }
+
+    /**
+     * Assigns a phase to a new field with the given update rate, so fields of the same rate are sampled on
+     * different updates.
+     *
+     * @param updateRate the field's update rate
+     * @return the update, modulo the rate's period, on which the field will be sampled
+     */
+    private int nextPhase(UpdateRate updateRate) {
+        return fieldsPerRate[updateRate.ordinal()]++ % updateRate.getPeriod();
+    }
+
+    /**
+     * @param field the field that was sampled
+     * @return whether the field has to be published even if its value did not change
+     */
+    private boolean mustPublish(Field field) {
+        return !changeDetection || updateCount - field.lastPublishedUpdate >= refreshPeriod;
     }
 
     private void updateString() {
-        for (Map.Entry<String, Supplier<String>> map : stringFields.entrySet()) {
-            NetworkTableEntry entry = this.table.getEntry(map.getKey());
-            entry.setString(map.getValue().get());
+        for (int i = 0; i < stringFieldList.size(); i++) {
+            StringField field = stringFieldList.get(i);
+            if (!field.isDue(updateCount)) continue;
+            long start = profiler == null ? 0 : System.nanoTime();
+            String value = field.supplier.get();
+            if (profiler != null) profiler.recordSupplier(field.key, System.nanoTime() - start);
+            if (mustPublish(field) || field.hasChanged(value)) field.publish(value, updateCount, snapshotBuffer);
         }
     }
 
     private void updateNumber() {
-        for (Map.Entry<String, Supplier<? extends Number>> map : numberFields.entrySet()) {
-            NetworkTableEntry entry = this.table.getEntry(map.getKey());
-            entry.setNumber(map.getValue().get());
+        for (int i = 0; i < numberFieldList.size(); i++) {
+            NumberField field = numberFieldList.get(i);
+            if (!field.isDue(updateCount)) continue;
+            long start = profiler == null ? 0 : System.nanoTime();
+            double value = field.supplier.getAsDouble();
+            if (profiler != null) profiler.recordSupplier(field.key, System.nanoTime() - start);
+            if (mustPublish(field) || field.hasChanged(value)) field.publish(value, updateCount, snapshotBuffer);
         }
     }
 
     private void updateBoolean() {
-        for (Map.Entry<String, Supplier<Boolean>> map : booleanFields.entrySet()) {
-            NetworkTableEntry entry = this.table.getEntry(map.getKey());
-            entry.setBoolean(map.getValue().get());
+        for (int i = 0; i < booleanFieldList.size(); i++) {
+            BooleanField field = booleanFieldList.get(i);
+            if (!field.isDue(updateCount)) continue;
+            long start = profiler == null ? 0 : System.nanoTime();
+            boolean value = field.supplier.getAsBoolean();
+            if (profiler != null) profiler.recordSupplier(field.key, System.nanoTime() - start);
+            if (mustPublish(field) || field.hasChanged(value)) field.publish(value, updateCount, snapshotBuffer);
         }
     }
 
+    /**
+     * Updates the {@link Sendable}s that are due on this update and are read by anything, such as a dashboard or the
+     * data log. A {@link Sendable} no one subscribes to is skipped, so its getters are not called.
+     */
     private void updateSendable() {
-        for (Sendable data : tablesToData.values()) {
-            SendableRegistry.update(data);
+        for (int i = 0; i < sendableFieldList.size(); i++) {
+            SendableField field = sendableFieldList.get(i);
+            if (field.isDue(updateCount) && field.subscribers.isSubscribed()) field.builder.update();
+        }
+    }
+
+    /**
+     * The scheduling state shared by all the fields of the namespace.
+     */
+    protected abstract static class Field {
+
+        protected final String key;
+        protected final UpdateRate updateRate;
+
+        /**
+         * The update, modulo the rate's period, on which the field is sampled.
+         */
+        private final int phase;
+
+        /**
+         * The update on which the field was last published.
+         */
+        long lastPublishedUpdate;
+
+        private Field(String key, UpdateRate updateRate, int phase) {
+            this.key = key;
+            this.updateRate = updateRate;
+            this.phase = phase;
+        }
+
+        boolean isDue(long updateCount) {
+            return updateCount % updateRate.getPeriod() == phase;
+        }
+    }
+
+    /**
+     * A String field of the namespace, along with the publisher it is sent through.
+     */
+    protected static final class StringField extends Field {
+
+        protected final Supplier<String> supplier;
+        protected final StringPublisher publisher;
+
+        /**
+         * The last value that was published.
+         */
+        private String lastValue;
+
+        private StringField(String key, Supplier<String> supplier, StringPublisher publisher, UpdateRate updateRate,
+                            int phase) {
+            super(key, updateRate, phase);
+            this.supplier = supplier;
+            this.publisher = publisher;
+        }
+
+        private boolean hasChanged(String value) {
+            return !Objects.equals(value, lastValue);
+        }
+
+        private void publish(String value, long updateCount, SnapshotBuffer buffer) {
+            if (buffer == null) publisher.set(value);
+            else buffer.addString(publisher, value);
+            lastValue = value;
+            lastPublishedUpdate = updateCount;
+        }
+    }
+
+    /**
+     * A Number field of the namespace, along with the publisher it is sent through.
+     */
+    protected static final class NumberField extends Field {
+
+        protected final DoubleSupplier supplier;
+        protected final DoublePublisher publisher;
+
+        /**
+         * The maximal difference from the last published value that is not considered a change.
+         */
+        protected final double epsilon;
+
+        /**
+         * The last value that was published.
+         */
+        private double lastValue;
+
+        private NumberField(String key, DoubleSupplier supplier, DoublePublisher publisher, double epsilon,
+                            UpdateRate updateRate, int phase) {
+            super(key, updateRate, phase);
+            this.supplier = supplier;
+            this.publisher = publisher;
+            this.epsilon = epsilon;
+        }
+
+        private boolean hasChanged(double value) {
+            if (Double.isNaN(value) || Double.isNaN(lastValue)) return Double.compare(value, lastValue) != 0;
+            return Math.abs(value - lastValue) > epsilon;
+        }
+
+        private void publish(double value, long updateCount, SnapshotBuffer buffer) {
+            if (buffer == null) publisher.set(value);
+            else buffer.addNumber(publisher, value);
+            lastValue = value;
+            lastPublishedUpdate = updateCount;
+        }
+    }
+
+    /**
+     * A Boolean field of the namespace, along with the publisher it is sent through.
+     */
+    protected static final class BooleanField extends Field {
+
+        protected final BooleanSupplier supplier;
+        protected final BooleanPublisher publisher;
+
+        /**
+         * The last value that was published.
+         */
+        private boolean lastValue;
+
+        private BooleanField(String key, BooleanSupplier supplier, BooleanPublisher publisher,
+                             UpdateRate updateRate, int phase) {
+            super(key, updateRate, phase);
+            this.supplier = supplier;
+            this.publisher = publisher;
+        }
+
+        private boolean hasChanged(boolean value) {
+            return value != lastValue;
+        }
+
+        private void publish(boolean value, long updateCount, SnapshotBuffer buffer) {
+            if (buffer == null) publisher.set(value);
+            else buffer.addBoolean(publisher, value);
+            lastValue = value;
+            lastPublishedUpdate = updateCount;
+        }
+    }
+
+    /**
+     * A {@link Sendable} of the namespace, along with the builder that publishes its properties.
+     */
+    protected static final class SendableField extends Field {
+
+        protected final Sendable sendable;
+        protected final SendableBuilderImpl builder;
+        private final SubscriberWatch subscribers;
+
+        private SendableField(String key, Sendable sendable, SendableBuilderImpl builder,
+                              SubscriberWatch subscribers, UpdateRate updateRate, int phase) {
+            super(key, updateRate, phase);
+            this.sendable = sendable;
+            this.builder = builder;
+            this.subscribers = subscribers;
+        }
+    }
+
+    /**
+     * Follows whether a {@link Sendable}'s table is subscribed to, from the {@code $sub$} meta topic the
+     * NetworkTables server publishes for its {@code .type} topic. Dashboards and the data log subscribe to every topic
+     * under a prefix, so they show up there as well.
+     *
+     * <p>The meta topic is followed with a listener, so checking it allocates nothing. Until the meta topic has a
+     * value, such as when the server does not publish meta topics, the table is considered subscribed.</p>
+     */
+    private static final class SubscriberWatch implements AutoCloseable {
+
+        private final NetworkTableInstance instance;
+        private final RawSubscriber subscriber;
+        private final int listenerHandle;
+        private volatile boolean subscribed = true;
+
+        private SubscriberWatch(NetworkTable table) {
+            instance = table.getInstance();
+            subscriber = instance.getRawTopic("$sub$" + table.getPath() + "/.type").subscribe("msgpack",
+                    new byte[0]);
+            listenerHandle = instance.addListener(subscriber,
+                    EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate),
+                    event -> subscribed = countSubscribers(event.valueData.value.getRaw()) > 0);
+        }
+
+        private boolean isSubscribed() {
+            return subscribed;
+        }
+
+        @Override
+        public void close() {
+            instance.removeListener(listenerHandle);
+            subscriber.close();
+        }
+
+        /**
+         * @param subscribers the value of a {@code $sub$} meta topic, which is a MessagePack array with one map for
+         *                    every subscriber
+         * @return the length of the array
+         */
+        private static long countSubscribers(byte[] subscribers) {
+            if (subscribers.length == 0) return 0;
+            int header = subscribers[0] & 0xff;
+            if ((header & 0xf0) == 0x90) return header & 0x0f;
+            if (header == 0xdc && subscribers.length >= 3) {
+                return ((subscribers[1] & 0xff) << 8) | (subscribers[2] & 0xff);
+            }
+            if (header == 0xdd && subscribers.length >= 5) {
+                return ((long) (subscribers[1] & 0xff) << 24) | ((subscribers[2] & 0xff) << 16)
+                        | ((subscribers[3] & 0xff) << 8) | (subscribers[4] & 0xff);
+            }
+            return 0;
         }
     }
 }
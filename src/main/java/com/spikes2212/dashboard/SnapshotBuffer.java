@@ -0,0 +1,169 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.StringPublisher;
+
+import java.util.Arrays;
+
+/**
+ * Holds the values a {@link RootNamespace} sampled on one update, until a {@link SnapshotPublisher} sends them.
+ *
+ * <p>The robot thread fills a back snapshot and hands it over on {@link #commit()}, while the publisher thread sends
+ * the last handed over snapshot. The snapshots' arrays are reused, so nothing is allocated once they are big enough
+ * for all the namespace's fields.</p>
+ */
+class SnapshotBuffer {
+
+    /**
+     * The snapshot being filled by the robot thread.
+     */
+    private Snapshot back;
+
+    /**
+     * The last committed snapshot, waiting for the publisher thread.
+     */
+    private Snapshot ready;
+
+    /**
+     * The snapshot being sent by the publisher thread.
+     */
+    private Snapshot front;
+
+    /**
+     * Whether {@link #ready} holds a snapshot that was not sent yet.
+     */
+    private boolean pending;
+
+    /**
+     * The number of committed snapshots that were replaced before the publisher thread could send them.
+     */
+    private long droppedSnapshots;
+
+    SnapshotBuffer() {
+        back = new Snapshot();
+        ready = new Snapshot();
+        front = new Snapshot();
+    }
+
+    void addNumber(DoublePublisher publisher, double value) {
+        back.addNumber(publisher, value);
+    }
+
+    void addBoolean(BooleanPublisher publisher, boolean value) {
+        back.addBoolean(publisher, value);
+    }
+
+    void addString(StringPublisher publisher, String value) {
+        back.addString(publisher, value);
+    }
+
+    /**
+     * Hands the values sampled since the last commit over to the publisher thread. If the previous snapshot was not
+     * sent yet it is replaced; values lost this way are sent again on the namespace's next refresh.
+     */
+    synchronized void commit() {
+        if (back.isEmpty()) return;
+        if (pending) droppedSnapshots++;
+        Snapshot temp = ready;
+        ready = back;
+        back = temp;
+        back.clear();
+        pending = true;
+    }
+
+    /**
+     * Sends the last committed snapshot, if there is one. Should only be called by the publisher thread.
+     *
+     * @return whether anything was sent
+     */
+    boolean publishPending() {
+        synchronized (this) {
+            if (!pending) return false;
+            Snapshot temp = front;
+            front = ready;
+            ready = temp;
+            pending = false;
+        }
+        front.publish();
+        front.clear();
+        return true;
+    }
+
+    synchronized long getDroppedSnapshots() {
+        return droppedSnapshots;
+    }
+
+    /**
+     * The values sampled on a single update, stored in primitive arrays.
+     */
+    private static class Snapshot {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private DoublePublisher[] numberPublishers = new DoublePublisher[INITIAL_CAPACITY];
+        private double[] numbers = new double[INITIAL_CAPACITY];
+        private int numberCount;
+
+        private BooleanPublisher[] booleanPublishers = new BooleanPublisher[INITIAL_CAPACITY];
+        private boolean[] booleans = new boolean[INITIAL_CAPACITY];
+        private int booleanCount;
+
+        private StringPublisher[] stringPublishers = new StringPublisher[INITIAL_CAPACITY];
+        private String[] strings = new String[INITIAL_CAPACITY];
+        private int stringCount;
+
+        private void addNumber(DoublePublisher publisher, double value) {
+            if (numberCount == numbers.length) {
+                numberPublishers = Arrays.copyOf(numberPublishers, numberCount * 2);
+                numbers = Arrays.copyOf(numbers, numberCount * 2);
+            }
+            numberPublishers[numberCount] = publisher;
+            numbers[numberCount++] = value;
+        }
+
+        private void addBoolean(BooleanPublisher publisher, boolean value) {
+            if (booleanCount == booleans.length) {
+                booleanPublishers = Arrays.copyOf(booleanPublishers, booleanCount * 2);
+                booleans = Arrays.copyOf(booleans, booleanCount * 2);
+            }
+            booleanPublishers[booleanCount] = publisher;
+            booleans[booleanCount++] = value;
+        }
+
+        private void addString(StringPublisher publisher, String value) {
+            if (stringCount == strings.length) {
+                stringPublishers = Arrays.copyOf(stringPublishers, stringCount * 2);
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            stringPublishers[stringCount] = publisher;
+            strings[stringCount++] = value;
+        }
+
+        private boolean isEmpty() {
+            return numberCount == 0 && booleanCount == 0 && stringCount == 0;
+        }
+
+        private void publish() {
+            for (int i = 0; i < numberCount; i++) {
+                numberPublishers[i].set(numbers[i]);
+            }
+            for (int i = 0; i < booleanCount; i++) {
+                booleanPublishers[i].set(booleans[i]);
+            }
+            for (int i = 0; i < stringCount; i++) {
+                stringPublishers[i].set(strings[i]);
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(numberPublishers, 0, numberCount, null);
+            Arrays.fill(booleanPublishers, 0, booleanCount, null);
+            Arrays.fill(stringPublishers, 0, stringCount, null);
+            Arrays.fill(strings, 0, stringCount, null);
+            numberCount = 0;
+            booleanCount = 0;
+            stringCount = 0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A background thread that sends the values sampled by {@link RootNamespace}s to the {@link NetworkTableInstance},
+ * taking the NetworkTables work off the robot's main loop.
+ *
+ * <p>A single publisher can serve any number of namespaces, see
+ * {@link Namespace#setSnapshotPublisher(SnapshotPublisher)}. The thread's CPU use is bounded by its period and by a
+ * maximal duty cycle: after every pass it sleeps for at least the rest of the period, and for long enough that the
+ * time it spent working is no more than the given fraction of the time that passed.</p>
+ */
+public class SnapshotPublisher implements AutoCloseable {
+
+    /**
+     * The default time between two passes of the publisher thread, in seconds.
+     */
+    public static final double DEFAULT_PERIOD = 0.02;
+
+    /**
+     * The default maximal fraction of the time the publisher thread may spend working.
+     */
+    public static final double DEFAULT_MAX_DUTY_CYCLE = 0.1;
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    /**
+     * The buffers of the namespaces this publisher serves.
+     */
+    private final List<SnapshotBuffer> buffers;
+
+    /**
+     * The minimal time between the starts of two passes, in nanoseconds.
+     */
+    private final long periodNanos;
+
+    /**
+     * The maximal fraction of the time the publisher thread may spend working.
+     */
+    private final double maxDutyCycle;
+
+    private final Thread thread;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a new {@link SnapshotPublisher} and starts its thread.
+     *
+     * @param period       the minimal time between two passes of the publisher thread, in seconds
+     * @param maxDutyCycle the maximal fraction of the time the publisher thread may spend working, between 0 and 1
+     */
+    public SnapshotPublisher(double period, double maxDutyCycle) {
+        if (period <= 0) throw new IllegalArgumentException("The period must be positive.");
+        if (maxDutyCycle <= 0 || maxDutyCycle > 1)
+            throw new IllegalArgumentException("The maximal duty cycle must be between 0 and 1.");
+        this.periodNanos = (long) (period * 1e9);
+        this.maxDutyCycle = maxDutyCycle;
+        this.buffers = new CopyOnWriteArrayList<>();
+        this.running = true;
+        this.thread = new Thread(this::run, "SpikesLib dashboard publisher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Constructs a new {@link SnapshotPublisher} with the default period and maximal duty cycle and starts its
+     * thread.
+     */
+    public SnapshotPublisher() {
+        this(DEFAULT_PERIOD, DEFAULT_MAX_DUTY_CYCLE);
+    }
+
+    void register(SnapshotBuffer buffer) {
+        buffers.add(buffer);
+    }
+
+    void unregister(SnapshotBuffer buffer) {
+        buffers.remove(buffer);
+    }
+
+    /**
+     * @return the number of sampled snapshots that were replaced by newer ones before they could be sent
+     */
+    public long getDroppedSnapshots() {
+        long dropped = 0;
+        for (SnapshotBuffer buffer : buffers) {
+            dropped += buffer.getDroppedSnapshots();
+        }
+        return dropped;
+    }
+
+    /**
+     * Stops the publisher thread. Namespaces using this publisher should be switched back to synchronous
+     * publishing first.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void run() {
+        NetworkTableInstance instance = NetworkTableInstance.getDefault();
+        while (running) {
+            long start = System.nanoTime();
+            boolean published = false;
+            for (SnapshotBuffer buffer : buffers) {
+                published |= buffer.publishPending();
+            }
+            if (published) instance.flush();
+            long elapsed = System.nanoTime() - start;
+            long sleepNanos = Math.max(periodNanos - elapsed, (long) (elapsed * (1 - maxDutyCycle) / maxDutyCycle));
+            try {
+                Thread.sleep(sleepNanos / NANOS_PER_MILLI, (int) (sleepNanos % NANOS_PER_MILLI));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -1,34 +1,209 @@
 package com.spikes2212.dashboard;
 
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 
+import java.time.Instant;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 /**
  * A logger class meant to be used with the <a href="https://github.com/Spikes-2212-Programming-Guild/SpikesLogger"> SpikesLogger desktop app </a>
  * to log values from the robot to a computer in real-time.
  * Uses a {@link NetworkTable} to communicate with the computer.
  *
+ * <p>Logged records are appended to a preallocated lock-free ring buffer, and a background thread formats them,
+ * writes all of them to a {@link DataLog}, if one was given, and mirrors the latest one to the NetworkTables. The
+ * logger never starts the {@link edu.wpi.first.wpilibj.DataLogManager} itself; to write to its log, pass
+ * {@code DataLogManager.getLog()} after starting it. The publisher and log entries are created on the background
+ * thread as well. Logging never blocks the calling thread; when the buffer is full, new records are dropped and
+ * counted in {@link #getDroppedCount()}. Outputs are converted to strings on the calling thread, so a record
+ * shows an object the way it was when it was logged.</p>
+ *
+ * <p>Records below the logger's {@link Level} are discarded before anything is formatted, and messages can be given
+ * as {@link Supplier}s through the explicit overloads so they are only built, on the calling thread, when they pass
+ * the level and {@link LogSite} checks; any other output is written with its {@code toString}. Consecutive identical
+ * records are written once, followed by a line with their repeat count once a different record arrives, the
+ * deduplication window ends or the logger is closed. {@link LogSite}s limit the rate of records from a single place
+ * in the code.</p>
+ *
  * @author TzintzeneT
  */
 public class SpikesLogger extends RootNamespace {
 
+    /**
+     * The severity levels of logged records.
+     */
+    public enum Level {
+
+        DEBUG, INFO, WARNING, ERROR
+    }
+
     private static final String DEFAULT_NAME = "SpikesLogger";
     private static final String DEFAULT_KEY = "output";
 
+    /**
+     * The default number of records the ring buffer can hold.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The maximal number of structured fields in a single record.
+     */
+    private static final int MAX_FIELDS = 3;
+
+    /**
+     * The time the writer thread waits when the buffer is empty, in nanoseconds.
+     */
+    private static final long IDLE_WAIT_NANOS = 5_000_000;
+
+    /**
+     * The longest time identical records are collapsed into a single repeat count, in microseconds.
+     */
+    private static final long DEDUPLICATION_WINDOW_MICROS = 1_000_000;
+
+    private static final double MICROS_PER_SECOND = 1e6;
+
+    /**
+     * The longest time to wait for the writer thread to write the remaining records when the logger stops.
+     */
+    private static final long WRITER_STOP_TIMEOUT_MILLIS = 1000;
+
     /**
      * NetworkTables key to use for the output.
      */
     private final String key;
 
     /**
-     * Creates a SpikesLogger instance with custom name and key for the output location.
+     * The records' sequence numbers, which tell whether each slot is free or holds a record that was not written yet.
      */
-    public SpikesLogger(String name, String key) {
+    private final AtomicLongArray sequences;
+
+    /**
+     * The records' messages, converted to strings by the logging thread.
+     */
+    private final String[] messages;
+    private final Level[] levels;
+    private final long[] timestamps;
+    private final long[] wallClockTimes;
+    private final boolean[] withWallClockTime;
+    private final int[] suppressedCounts;
+    private final int[] fieldCounts;
+    private final String[] fieldKeys;
+    private final double[] fieldValues;
+    private final int mask;
+
+    /**
+     * The position of the next record to be appended.
+     */
+    private final AtomicLong tail;
+
+    /**
+     * The position of the next record to be written. Only accessed by the writer thread.
+     */
+    private long head;
+
+    private final AtomicLong droppedCount;
+
+    /**
+     * The lowest level of records that are logged.
+     */
+    private volatile Level level;
+
+    /**
+     * The data log the records are written to, or {@code null} to only mirror them to the NetworkTables.
+     */
+    private final DataLog dataLog;
+
+    /**
+     * The publisher and log entry of the records. Created and only accessed by the writer thread.
+     */
+    private StringPublisher publisher;
+    private StringLogEntry logEntry;
+
+    private volatile Thread writer;
+
+    /**
+     * Whether the writer thread should write the remaining records and stop.
+     */
+    private volatile boolean stopping;
+
+    /**
+     * Stops the writer thread when the JVM shuts down, so the remaining records and repeat counts are written.
+     */
+    private Thread shutdownHook;
+
+    /**
+     * The data log entries of the structured fields, by field key. Only accessed by the writer thread.
+     */
+    private final Map<String, DoubleLogEntry> fieldEntries;
+
+    /**
+     * The last text that was written, the number of identical records that followed it and the time the first of
+     * them was logged. Only accessed by the writer thread.
+     */
+    private String lastText;
+    private int repeats;
+    private long repeatsStart;
+
+    /**
+     * Creates a SpikesLogger instance with custom name, key for the output location and ring buffer capacity, which
+     * also writes the records to the given data log.
+     *
+     * @param capacity the number of records the ring buffer can hold, rounded up to a power of two
+     * @param dataLog  the data log to write the records to, or {@code null} to only mirror them to the NetworkTables
+     */
+    public SpikesLogger(String name, String key, int capacity, DataLog dataLog) {
         super(name);
         this.key = key;
+        this.dataLog = dataLog;
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.messages = new String[size];
+        this.levels = new Level[size];
+        this.timestamps = new long[size];
+        this.wallClockTimes = new long[size];
+        this.withWallClockTime = new boolean[size];
+        this.suppressedCounts = new int[size];
+        this.fieldCounts = new int[size];
+        this.fieldKeys = new String[size * MAX_FIELDS];
+        this.fieldValues = new double[size * MAX_FIELDS];
+        this.tail = new AtomicLong();
+        this.droppedCount = new AtomicLong();
+        this.level = Level.DEBUG;
+        this.fieldEntries = new HashMap<>();
+    }
+
+    /**
+     * Creates a SpikesLogger instance with custom name, key for the output location and ring buffer capacity.
+     *
+     * @param capacity the number of records the ring buffer can hold, rounded up to a power of two
+     */
+    public SpikesLogger(String name, String key, int capacity) {
+        this(name, key, capacity, null);
+    }
+
+    /**
+     * Creates a SpikesLogger instance with custom name and key for the output location.
+     */
+    public SpikesLogger(String name, String key) {
+        this(name, key, DEFAULT_CAPACITY);
     }
 
     /**
@@ -46,21 +221,158 @@ public class SpikesLogger extends RootNamespace {
     }
 
     /**
-     * Logs the provided output to the NetworkTables and the SpikesLogger app.
+     * Sets the lowest level of records that are logged. Records below it are discarded without being formatted.
+     *
+     * @param level the lowest level to log
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @param level the level of a record
+     * @return whether records of the given level are logged
+     */
+    public boolean isLoggable(Level level) {
+        return level.compareTo(this.level) >= 0;
+    }
+
+    /**
+     * Logs the provided output to the NetworkTables and the SpikesLogger app, at the {@link Level#INFO} level
+     * and without a level prefix.
      *
      * @param output the data to be logged
      */
     public <T> void log(T output) {
-        putString(key, output == null ? "null" : output.toString());
+        if (!isLoggable(Level.INFO)) return;
+        String text = String.valueOf(output);
+        long position = claim();
+        if (position >= 0) commit(position, text, null, false, 0);
     }
 
     /**
-     * Logs the provided output with a timestamp to the NetworkTables and the SpikesLogger app.
+     * Logs the provided output with a timestamp to the NetworkTables and the SpikesLogger app, at the
+     * {@link Level#INFO} level and without a level prefix.
      *
      * @param output the data to be logged
      */
     public <T> void logWithTimestamp(T output) {
-        log(LocalTime.now() + ": " + output);
+        if (!isLoggable(Level.INFO)) return;
+        String text = String.valueOf(output);
+        long position = claim();
+        if (position >= 0) commit(position, text, null, true, 0);
+    }
+
+    /**
+     * Logs the provided output at the given level.
+     *
+     * @param level  the level of the record
+     * @param output the data to be logged
+     */
+    public void log(Level level, Object output) {
+        if (!isLoggable(level)) return;
+        String text = String.valueOf(output);
+        long position = claim();
+        if (position >= 0) commit(position, text, level, false, 0);
+    }
+
+    /**
+     * Logs a message at the given level. The message is only built if the level is logged.
+     *
+     * @param level   the level of the record
+     * @param message a {@link Supplier} of the message to be logged
+     */
+    public void log(Level level, Supplier<String> message) {
+        if (!isLoggable(level)) return;
+        String text = message.get();
+        long position = claim();
+        if (position >= 0) commit(position, text, level, false, 0);
+    }
+
+    /**
+     * Logs a message with a structured field at the given level. The field is also written to its own numeric entry
+     * in the data log.
+     *
+     * @param level   the level of the record
+     * @param message the message to be logged
+     * @param key     the field's key
+     * @param value   the field's value
+     */
+    public void log(Level level, String message, String key, double value) {
+        if (!isLoggable(level)) return;
+        long position = claim();
+        if (position < 0) return;
+        int fields = (int) (position & mask) * MAX_FIELDS;
+        fieldKeys[fields] = key;
+        fieldValues[fields] = value;
+        commit(position, message, level, false, 1);
+    }
+
+    /**
+     * Logs a message with two structured fields at the given level. The fields are also written to their own numeric
+     * entries in the data log.
+     *
+     * @param level   the level of the record
+     * @param message the message to be logged
+     * @param key1    the first field's key
+     * @param value1  the first field's value
+     * @param key2    the second field's key
+     * @param value2  the second field's value
+     */
+    public void log(Level level, String message, String key1, double value1, String key2, double value2) {
+        if (!isLoggable(level)) return;
+        long position = claim();
+        if (position < 0) return;
+        int fields = (int) (position & mask) * MAX_FIELDS;
+        fieldKeys[fields] = key1;
+        fieldValues[fields] = value1;
+        fieldKeys[fields + 1] = key2;
+        fieldValues[fields + 1] = value2;
+        commit(position, message, level, false, 2);
+    }
+
+    /**
+     * Logs a message with three structured fields at the given level. The fields are also written to their own
+     * numeric entries in the data log.
+     *
+     * @param level   the level of the record
+     * @param message the message to be logged
+     * @param key1    the first field's key
+     * @param value1  the first field's value
+     * @param key2    the second field's key
+     * @param value2  the second field's value
+     * @param key3    the third field's key
+     * @param value3  the third field's value
+     */
+    public void log(Level level, String message, String key1, double value1, String key2, double value2,
+                    String key3, double value3) {
+        if (!isLoggable(level)) return;
+        long position = claim();
+        if (position < 0) return;
+        int fields = (int) (position & mask) * MAX_FIELDS;
+        fieldKeys[fields] = key1;
+        fieldValues[fields] = value1;
+        fieldKeys[fields + 1] = key2;
+        fieldValues[fields + 1] = value2;
+        fieldKeys[fields + 2] = key3;
+        fieldValues[fields + 2] = value3;
+        commit(position, message, level, false, 3);
+    }
+
+    /**
+     * Creates a {@link LogSite} that logs at the given level, at most once every given period. Should be stored in a
+     * field and reused, one for every place in the code that may log repeatedly.
+     *
+     * @param level     the level of the site's records
+     * @param minPeriod the minimal time between two records of the site, in seconds
+     * @return the new {@link LogSite}
+     */
+    public LogSite site(Level level, double minPeriod) {
+        return new LogSite(level, minPeriod);
     }
 
     /**
@@ -82,4 +394,307 @@ public class SpikesLogger extends RootNamespace {
     public <T> Command logWithTimestampCommand(T output) {
         return new InstantCommand(() -> logWithTimestamp(output));
     }
+
+    /**
+     * @return the number of records that were dropped because the ring buffer was full or they could not be written
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * A place in the code that logs at a limited rate. Calls made less than the site's period after its last record
+     * are not formatted or logged, only counted, and the count is added to the site's next record.
+     */
+    public class LogSite {
+
+        private final Level level;
+        private final long minPeriodMicros;
+        private long lastRecordTime;
+        private boolean logged;
+        private int suppressed;
+
+        private LogSite(Level level, double minPeriod) {
+            this.level = level;
+            this.minPeriodMicros = (long) (minPeriod * MICROS_PER_SECOND);
+        }
+
+        /**
+         * Logs the provided output, unless the site logged less than its period ago.
+         *
+         * @param output the data to be logged
+         */
+        public void log(Object output) {
+            if (!isLoggable(level) || !acquire()) return;
+            String text = String.valueOf(output);
+            long position = claim();
+            if (position >= 0) commit(position, text, level, false, 0, suppressed);
+            suppressed = 0;
+        }
+
+        /**
+         * Logs a message, unless the site logged less than its period ago. The message is only built if it is logged.
+         *
+         * @param message a {@link Supplier} of the message to be logged
+         */
+        public void log(Supplier<String> message) {
+            if (!isLoggable(level) || !acquire()) return;
+            String text = message.get();
+            long position = claim();
+            if (position >= 0) commit(position, text, level, false, 0, suppressed);
+            suppressed = 0;
+        }
+
+        /**
+         * Logs a message with a structured field, unless the site logged less than its period ago.
+         *
+         * @param message the message to be logged
+         * @param key     the field's key
+         * @param value   the field's value
+         */
+        public void log(String message, String key, double value) {
+            if (!isLoggable(level) || !acquire()) return;
+            long position = claim();
+            if (position >= 0) {
+                int fields = (int) (position & mask) * MAX_FIELDS;
+                fieldKeys[fields] = key;
+                fieldValues[fields] = value;
+                commit(position, message, level, false, 1, suppressed);
+            }
+            suppressed = 0;
+        }
+
+        /**
+         * @return the number of calls that were suppressed since the site's last record
+         */
+        public int getSuppressedCount() {
+            return suppressed;
+        }
+
+        /**
+         * @return whether the site may log now; otherwise the call is counted as suppressed
+         */
+        private boolean acquire() {
+            long now = WPIUtilJNI.now();
+            if (logged && now - lastRecordTime < minPeriodMicros) {
+                suppressed++;
+                return false;
+            }
+            logged = true;
+            lastRecordTime = now;
+            return true;
+        }
+    }
+
+    /**
+     * Claims the next slot of the ring buffer.
+     *
+     * @return the position of the claimed slot, or -1 if the buffer is full and the record was dropped
+     */
+    private long claim() {
+        if (writer == null) startWriter();
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) return position;
+                position = tail.get();
+            } else if (difference < 0) {
+                droppedCount.incrementAndGet();
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void commit(long position, String message, Level level, boolean withTimestamp, int fieldCount) {
+        commit(position, message, level, withTimestamp, fieldCount, 0);
+    }
+
+    /**
+     * Fills a claimed slot and hands it over to the writer thread.
+     */
+    private void commit(long position, String message, Level level, boolean withTimestamp, int fieldCount,
+                        int suppressed) {
+        int index = (int) (position & mask);
+        messages[index] = message;
+        levels[index] = level;
+        timestamps[index] = WPIUtilJNI.now();
+        withWallClockTime[index] = withTimestamp;
+        if (withTimestamp) wallClockTimes[index] = System.currentTimeMillis();
+        fieldCounts[index] = fieldCount;
+        suppressedCounts[index] = suppressed;
+        sequences.set(index, position + 1);
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null || stopping) return;
+        Thread thread = new Thread(this::drain, name + " writer");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+        shutdownHook = new Thread(this::stopWriter, name + " shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Makes the writer thread write the remaining records, including a pending repeat count, and waits for it to
+     * stop.
+     */
+    private void stopWriter() {
+        stopping = true;
+        Thread thread = writer;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(WRITER_STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the remaining records and stops the writer thread, then closes the namespace. Records logged afterwards
+     * are dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (shutdownHook != null) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException e) {
+                    // the JVM is already shutting down, and the hook stops the writer
+                }
+                shutdownHook = null;
+            }
+        }
+        stopWriter();
+        super.close();
+    }
+
+    /**
+     * Writes the buffered records to the data log and mirrors the latest one to the NetworkTables, until the logger is
+     * stopped.
+     */
+    private void drain() {
+        publisher = table.getStringTopic(key).publish();
+        if (dataLog != null) logEntry = new StringLogEntry(dataLog, "/" + name + "/" + key);
+        while (true) {
+            String latest = null;
+            while (true) {
+                int index = (int) (head & mask);
+                if (sequences.get(index) != head + 1) break;
+                String written = writeRecord(index);
+                if (written != null) latest = written;
+            }
+            boolean done = stopping && sequences.get((int) (head & mask)) != head + 1;
+            String summary = flushRepeats(WPIUtilJNI.now(), done);
+            if (summary != null) latest = summary;
+            if (latest != null) publisher.set(latest);
+            if (done) {
+                publisher.close();
+                return;
+            }
+            if (latest == null) LockSupport.parkNanos(IDLE_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Writes the record in the given slot and frees the slot. A record that can't be written is counted as dropped,
+     * so it doesn't stop the writer thread.
+     *
+     * @return the text that was written, or {@code null} if nothing was written
+     */
+    private String writeRecord(int index) {
+        try {
+            String text = format(index);
+            long timestamp = timestamps[index];
+            writeFields(index, timestamp);
+            return write(text, timestamp);
+        } catch (RuntimeException e) {
+            droppedCount.incrementAndGet();
+            return null;
+        } finally {
+            messages[index] = null;
+            for (int i = 0; i < fieldCounts[index]; i++) {
+                fieldKeys[index * MAX_FIELDS + i] = null;
+            }
+            sequences.set(index, head + mask + 1);
+            head++;
+        }
+    }
+
+    /**
+     * Writes the repeat count of the last text, if its deduplication window expired or the logger is stopping.
+     *
+     * @return the line that was written, or {@code null} if nothing was written
+     */
+    private String flushRepeats(long now, boolean force) {
+        if (repeats == 0 || (!force && now - repeatsStart < DEDUPLICATION_WINDOW_MICROS)) return null;
+        String summary = lastText + " (repeated " + repeats + " times)";
+        append(summary, now);
+        repeats = 0;
+        return summary;
+    }
+
+    /**
+     * Writes a record's text to the data log, collapsing identical consecutive records into a repeat count.
+     *
+     * @return the text that was written, or {@code null} if the record was collapsed
+     */
+    private String write(String text, long timestamp) {
+        if (text.equals(lastText)) {
+            if (repeats == 0) repeatsStart = timestamp;
+            repeats++;
+            if (timestamp - repeatsStart < DEDUPLICATION_WINDOW_MICROS) return null;
+            String summary = text + " (repeated " + repeats + " times)";
+            append(summary, timestamp);
+            repeats = 0;
+            return summary;
+        }
+        if (repeats > 0) {
+            append(lastText + " (repeated " + repeats + " times)", timestamp);
+            repeats = 0;
+        }
+        append(text, timestamp);
+        lastText = text;
+        return text;
+    }
+
+    private void append(String text, long timestamp) {
+        if (logEntry != null) logEntry.append(text, timestamp);
+    }
+
+    private void writeFields(int index, long timestamp) {
+        if (dataLog == null) return;
+        for (int i = 0; i < fieldCounts[index]; i++) {
+            String fieldKey = fieldKeys[index * MAX_FIELDS + i];
+            DoubleLogEntry entry = fieldEntries.get(fieldKey);
+            if (entry == null) {
+                entry = new DoubleLogEntry(dataLog, "/" + name + "/" + key + "/" + fieldKey);
+                fieldEntries.put(fieldKey, entry);
+            }
+            entry.append(fieldValues[index * MAX_FIELDS + i], timestamp);
+        }
+    }
+
+    private String format(int index) {
+        StringBuilder text = new StringBuilder();
+        if (withWallClockTime[index]) {
+            text.append(LocalTime.ofInstant(Instant.ofEpochMilli(wallClockTimes[index]), ZoneId.systemDefault()))
+                    .append(": ");
+        }
+        if (levels[index] != null) text.append('[').append(levels[index]).append("] ");
+        text.append(messages[index]);
+        for (int i = 0; i < fieldCounts[index]; i++) {
+            text.append(' ').append(fieldKeys[index * MAX_FIELDS + i]).append('=')
+                    .append(fieldValues[index * MAX_FIELDS + i]);
+        }
+        if (suppressedCounts[index] > 0) {
+            text.append(" (").append(suppressedCounts[index]).append(" suppressed)");
+        }
+        return text.toString();
+    }
 }
@@ -0,0 +1,36 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.StringSubscriber;
+import edu.wpi.first.networktables.StringTopic;
+
+import java.util.function.Supplier;
+
+/**
+ * A String {@link NamespaceConstant}.
+ */
+public class StringConstant extends NamespaceConstant implements Supplier<String> {
+
+    private volatile String value;
+
+    StringConstant(StringTopic topic, String defaultValue) {
+        this(topic.subscribe(defaultValue));
+    }
+
+    private StringConstant(StringSubscriber subscriber) {
+        super(subscriber);
+        this.value = subscriber.get();
+    }
+
+    @Override
+    public String get() {
+        return value;
+    }
+
+    @Override
+    protected boolean accept(NetworkTableValue value) {
+        if (!value.isString()) return false;
+        this.value = value.getString();
+        return true;
+    }
+}
@@ -0,0 +1,301 @@
+package com.spikes2212.dashboard;
+
+import edu.wpi.first.wpilibj.Filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A local file holding the values of every {@link NamespaceConstant}, so they can be restored at startup without
+ * waiting for the NetworkTables.
+ *
+ * <p>The snapshot should be loaded with {@link #load()} at the very start of {@code robotInit()}, before any constant
+ * is created. Every constant whose name is in the loaded snapshot and that has no persisted NetworkTables value then
+ * starts with the snapshot's value instead of its default one. Persisted values are saved on every dashboard edit,
+ * while the snapshot only changes on export, so they take precedence; {@link #load(String, boolean)} can make the
+ * snapshot override them instead. {@link #export()} writes the current values of all the constants created so far, for
+ * example in {@code disabledInit()}, which also keeps a record of the tuning used in each match.</p>
+ *
+ * <p>The file starts with a magic number and a format version and ends with a CRC32 checksum of its contents. A
+ * snapshot that is missing, of another version or corrupted is ignored as a whole.</p>
+ */
+public class TuningSnapshot {
+
+    /**
+     * The default location of the snapshot file, which is kept between code deploys.
+     */
+    public static final String DEFAULT_PATH =
+            Paths.get(Filesystem.getOperatingDirectory().getPath(), "tuning-snapshot.bin").toString();
+
+    private static final int MAGIC = 0x53504B54;
+    private static final int VERSION = 1;
+
+    private static final byte DOUBLE_TYPE = 0;
+    private static final byte STRING_TYPE = 1;
+    private static final byte DOUBLE_ARRAY_TYPE = 2;
+
+    private static TuningSnapshot instance;
+
+    /**
+     * The double values of the loaded snapshot, by the full names of their topics.
+     */
+    private final Map<String, Double> doubles;
+
+    /**
+     * The String values of the loaded snapshot, by the full names of their topics.
+     */
+    private final Map<String, String> strings;
+
+    /**
+     * The double array values of the loaded snapshot, by the full names of their topics.
+     */
+    private final Map<String, double[]> doubleArrays;
+
+    /**
+     * Every constant that was created and not closed, by the full name of its topic, in creation order.
+     */
+    private final Map<String, NamespaceConstant> constants;
+
+    /**
+     * Whether the loaded values override the persisted NetworkTables values.
+     */
+    private boolean overridePersisted;
+
+    /**
+     * The checksum of the loaded snapshot, or -1 if none was loaded.
+     */
+    private long loadedChecksum;
+
+    private TuningSnapshot() {
+        doubles = new HashMap<>();
+        strings = new HashMap<>();
+        doubleArrays = new HashMap<>();
+        constants = new LinkedHashMap<>();
+        loadedChecksum = -1;
+    }
+
+    public static TuningSnapshot getInstance() {
+        if (instance == null) {
+            instance = new TuningSnapshot();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the snapshot from {@link #DEFAULT_PATH}.
+     *
+     * @return whether a valid snapshot was loaded
+     */
+    public boolean load() {
+        return load(DEFAULT_PATH);
+    }
+
+    /**
+     * Loads a snapshot whose values are only used by constants without a persisted NetworkTables value.
+     *
+     * @param path the path of the snapshot file
+     * @return whether a valid snapshot was loaded
+     * @see #load(String, boolean)
+     */
+    public boolean load(String path) {
+        return load(path, false);
+    }
+
+    /**
+     * Loads a snapshot, replacing the values of any snapshot loaded before. Only affects constants that are created
+     * afterwards.
+     *
+     * @param path              the path of the snapshot file
+     * @param overridePersisted whether the snapshot's values replace the persisted NetworkTables values, discarding
+     *                          any edit made after the snapshot was exported
+     * @return whether a valid snapshot was loaded
+     */
+    public boolean load(String path, boolean overridePersisted) {
+        Map<String, Double> loadedDoubles = new HashMap<>();
+        Map<String, String> loadedStrings = new HashMap<>();
+        Map<String, double[]> loadedDoubleArrays = new HashMap<>();
+        long checksum;
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(Paths.get(path)))) {
+            CRC32 crc = new CRC32();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return false;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte type = in.readByte();
+                String name = in.readUTF();
+                if (type == DOUBLE_TYPE) loadedDoubles.put(name, in.readDouble());
+                else if (type == STRING_TYPE) loadedStrings.put(name, in.readUTF());
+                else if (type == DOUBLE_ARRAY_TYPE) loadedDoubleArrays.put(name, readDoubleArray(in));
+                else return false;
+            }
+            checksum = crc.getValue();
+            if (new DataInputStream(file).readLong() != checksum) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        doubles.clear();
+        doubles.putAll(loadedDoubles);
+        strings.clear();
+        strings.putAll(loadedStrings);
+        doubleArrays.clear();
+        doubleArrays.putAll(loadedDoubleArrays);
+        loadedChecksum = checksum;
+        this.overridePersisted = overridePersisted;
+        return true;
+    }
+
+    /**
+     * Writes the current values of all the constants to {@link #DEFAULT_PATH}.
+     *
+     * @return whether the snapshot was written
+     */
+    public boolean export() {
+        return export(DEFAULT_PATH);
+    }
+
+    /**
+     * Writes the current values of all the constants to a snapshot file. The file is replaced only once the whole
+     * snapshot was written, so a failed export never leaves a partial snapshot behind.
+     *
+     * @param path the path of the snapshot file
+     * @return whether the snapshot was written
+     */
+    public boolean export(String path) {
+        Path target = Paths.get(path);
+        Path temporary = Paths.get(path + ".tmp");
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(constants.size());
+                for (NamespaceConstant constant : constants.values()) {
+                    if (constant instanceof StringConstant) {
+                        out.writeByte(STRING_TYPE);
+                        out.writeUTF(constant.getName());
+                        out.writeUTF(((StringConstant) constant).get());
+                    } else if (constant instanceof DoubleArrayConstant) {
+                        out.writeByte(DOUBLE_ARRAY_TYPE);
+                        out.writeUTF(constant.getName());
+                        writeDoubleArray(out, ((DoubleArrayConstant) constant).get());
+                    } else {
+                        out.writeByte(DOUBLE_TYPE);
+                        out.writeUTF(constant.getName());
+                        out.writeDouble(constant instanceof IntConstant ? ((IntConstant) constant).getAsInt() :
+                                ((DoubleConstant) constant).getAsDouble());
+                    }
+                }
+                out.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return whether a valid snapshot was loaded
+     */
+    public boolean isLoaded() {
+        return loadedChecksum != -1;
+    }
+
+    /**
+     * @return the checksum of the loaded snapshot, or -1 if none was loaded
+     */
+    public long getLoadedChecksum() {
+        return loadedChecksum;
+    }
+
+    /**
+     * @return the number of constants created so far and not closed
+     */
+    public int size() {
+        return constants.size();
+    }
+
+    /**
+     * Adds a constant to the ones written by {@link #export()}, replacing any constant of the same name.
+     *
+     * @param constant the constant to add
+     */
+    void track(NamespaceConstant constant) {
+        constants.put(constant.getName(), constant);
+    }
+
+    /**
+     * Removes a closed constant from the ones written by {@link #export()}.
+     *
+     * @param constant the constant to remove
+     */
+    void untrack(NamespaceConstant constant) {
+        constants.remove(constant.getName(), constant);
+    }
+
+    /**
+     * @param name      the full name of the constant's topic
+     * @param persisted whether the constant has a persisted NetworkTables value
+     * @return the constant's double value in the loaded snapshot, or {@code null} if it is not there or the persisted
+     * value takes precedence
+     */
+    Double getDouble(String name, boolean persisted) {
+        if (persisted && !overridePersisted) return null;
+        return doubles.get(name);
+    }
+
+    /**
+     * @param name      the full name of the constant's topic
+     * @param persisted whether the constant has a persisted NetworkTables value
+     * @return the constant's String value in the loaded snapshot, or {@code null} if it is not there or the persisted
+     * value takes precedence
+     */
+    String getString(String name, boolean persisted) {
+        if (persisted && !overridePersisted) return null;
+        return strings.get(name);
+    }
+
+    /**
+     * @param name      the full name of the constant's topic
+     * @param persisted whether the constant has a persisted NetworkTables value
+     * @return the constant's double array value in the loaded snapshot, or {@code null} if it is not there or the
+     * persisted value takes precedence
+     */
+    double[] getDoubleArray(String name, boolean persisted) {
+        if (persisted && !overridePersisted) return null;
+        double[] value = doubleArrays.get(name);
+        return value == null ? null : value.clone();
+    }
+
+    private static double[] readDoubleArray(DataInputStream in) throws IOException {
+        double[] value = new double[in.readInt()];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = in.readDouble();
+        }
+        return value;
+    }
+
+    private static void writeDoubleArray(DataOutputStream out, double[] value) throws IOException {
+        out.writeInt(value.length);
+        for (double element : value) {
+            out.writeDouble(element);
+        }
+    }
+}
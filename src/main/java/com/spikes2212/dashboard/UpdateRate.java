@@ -0,0 +1,38 @@
+package com.spikes2212.dashboard;
+
+/**
+ * The rates at which a {@link Namespace}'s fields can be sampled and published.
+ *
+ * <p>Slower fields are spread across the namespace's updates, so only a fraction of them is sampled on each update
+ * and the cost of every update stays roughly the same.</p>
+ */
+public enum UpdateRate {
+
+    /**
+     * Sampled on every update (50 Hz with the default scheduler period).
+     */
+    FAST(1),
+
+    /**
+     * Sampled once every 5 updates (10 Hz with the default scheduler period).
+     */
+    MEDIUM(5),
+
+    /**
+     * Sampled once every 25 updates (2 Hz with the default scheduler period).
+     */
+    SLOW(25);
+
+    /**
+     * The number of updates between two samples of a field.
+     */
+    private final int period;
+
+    UpdateRate(int period) {
+        this.period = period;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,89 @@
+package com.spikes2212.util;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of durations, with buckets whose bounds grow in powers of two microseconds. Recording a
+ * duration allocates nothing.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of buckets. The last bucket holds every duration of about half a second or longer.
+     */
+    public static final int BUCKETS = 20;
+
+    private static final double NANOS_PER_MICRO = 1000;
+
+    private final long[] counts;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public LatencyHistogram() {
+        counts = new long[BUCKETS];
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(nanos, 0) / 1000;
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        counts[bucket]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the recorded durations in microseconds
+     */
+    public double getMean() {
+        return count == 0 ? 0 : totalNanos / NANOS_PER_MICRO / count;
+    }
+
+    /**
+     * @return the longest recorded duration in microseconds
+     */
+    public double getMax() {
+        return maxNanos / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the recorded durations, with the resolution of the
+     * histogram's buckets.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound of the bucket the percentile falls in, in microseconds
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i == BUCKETS - 1 ? getMax() : 1L << i;
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+}